@@ -0,0 +1,114 @@
+package com.raoulvdberge.refinedstorage.benchmark;
+
+import com.raoulvdberge.refinedstorage.api.autocrafting.ICraftingPattern;
+import com.raoulvdberge.refinedstorage.api.network.INetworkMaster;
+import com.raoulvdberge.refinedstorage.api.storage.item.IItemStorageCache;
+import com.raoulvdberge.refinedstorage.api.util.IItemStackList;
+import com.raoulvdberge.refinedstorage.apiimpl.API;
+import com.raoulvdberge.refinedstorage.apiimpl.autocrafting.task.CraftingTask;
+import com.raoulvdberge.refinedstorage.apiimpl.util.ItemStackKey;
+import com.raoulvdberge.refinedstorage.test.TestBootstrap;
+import com.raoulvdberge.refinedstorage.test.TestItems;
+import com.raoulvdberge.refinedstorage.test.TestPattern;
+import net.minecraft.item.ItemStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculates a crafting task for the root of a recipe tree, every item in the tree is crafted from {@link #fanOut} items
+ * one level down and the items at the bottom are in storage. Items are never shared between recipes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CraftingTaskBenchmark {
+    @Param({"2", "4", "6"})
+    private int depth;
+
+    @Param({"3"})
+    private int fanOut;
+
+    @Param({"1", "64"})
+    private int quantity;
+
+    private INetworkMaster network;
+    private ICraftingPattern root;
+    private ItemStack requested;
+
+    private Map<ItemStackKey, ICraftingPattern> patterns = new HashMap<>();
+    private IItemStackList stored;
+    private int types;
+
+    @Setup
+    public void setup() {
+        TestBootstrap.init();
+
+        stored = API.instance().createItemStackList();
+
+        IItemStorageCache cache = (IItemStorageCache) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{IItemStorageCache.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getList":
+                case "getSnapshot":
+                    return stored;
+                case "getVersion":
+                    return 0L;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+
+        network = (INetworkMaster) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{INetworkMaster.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getItemStorageCache":
+                    return cache;
+                case "getPattern":
+                    return patterns.get(new ItemStackKey((ItemStack) args[0]));
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+
+        requested = TestItems.create(types, 1);
+        root = createTree(requested, depth);
+    }
+
+    private ICraftingPattern createTree(ItemStack output, int level) {
+        List<ItemStack> inputs = new ArrayList<>();
+
+        for (int i = 0; i < fanOut; ++i) {
+            ItemStack input = TestItems.create(++types, 1);
+
+            inputs.add(input);
+
+            if (level > 1) {
+                createTree(input, level - 1);
+            } else {
+                stored.add(TestItems.create(types, Integer.MAX_VALUE));
+            }
+        }
+
+        ICraftingPattern pattern = new TestPattern(null, inputs, output);
+
+        patterns.put(new ItemStackKey(output), pattern);
+
+        return pattern;
+    }
+
+    @Benchmark
+    public CraftingTask calculate() {
+        CraftingTask task = new CraftingTask(network, requested, root, quantity);
+
+        task.calculate();
+
+        return task;
+    }
+}
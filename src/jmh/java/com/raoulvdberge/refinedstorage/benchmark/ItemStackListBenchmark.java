@@ -0,0 +1,103 @@
+package com.raoulvdberge.refinedstorage.benchmark;
+
+import com.raoulvdberge.refinedstorage.api.util.IComparer;
+import com.raoulvdberge.refinedstorage.api.util.IItemStackList;
+import com.raoulvdberge.refinedstorage.apiimpl.API;
+import com.raoulvdberge.refinedstorage.test.TestBootstrap;
+import com.raoulvdberge.refinedstorage.test.TestItems;
+import net.minecraft.item.ItemStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The list behind the item storage cache of a network, with every type once in the list.
+ * The stacks that are looked up are new stacks with their own tag, like the ones that come from a grid or an importer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemStackListBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int types;
+
+    private IItemStackList list;
+    private ItemStack[] stacks;
+    private ItemStack missing;
+    private int next;
+
+    @Setup
+    public void setup() {
+        TestBootstrap.init();
+
+        list = API.instance().createItemStackList();
+        stacks = new ItemStack[types];
+
+        for (int i = 0; i < types; ++i) {
+            list.add(TestItems.create(i, 64));
+
+            stacks[i] = TestItems.create(i, 1);
+        }
+
+        missing = TestItems.create(types, 1);
+    }
+
+    private ItemStack nextStack() {
+        next = (next + 1) % types;
+
+        return stacks[next];
+    }
+
+    @Benchmark
+    public ItemStack getExact() {
+        return list.get(nextStack(), IComparer.COMPARE_DAMAGE | IComparer.COMPARE_NBT);
+    }
+
+    @Benchmark
+    public ItemStack getByItem() {
+        return list.get(nextStack(), 0);
+    }
+
+    @Benchmark
+    public ItemStack getOredict() {
+        return list.get(nextStack(), IComparer.COMPARE_DAMAGE | IComparer.COMPARE_NBT | IComparer.COMPARE_OREDICT);
+    }
+
+    @Benchmark
+    public ItemStack getById() {
+        return list.get(list.getId(nextStack()));
+    }
+
+    @Benchmark
+    public ItemStack getMissing() {
+        return list.get(missing, IComparer.COMPARE_DAMAGE | IComparer.COMPARE_NBT);
+    }
+
+    @Benchmark
+    public boolean addRemoveExisting() {
+        ItemStack stack = nextStack();
+
+        list.add(stack);
+
+        return list.remove(stack, false);
+    }
+
+    @Benchmark
+    public boolean addRemoveNew() {
+        list.add(missing);
+
+        boolean removed = list.remove(missing, true);
+
+        list.releaseIds();
+
+        return removed;
+    }
+
+    @Benchmark
+    public IItemStackList copy() {
+        return list.copy();
+    }
+}
@@ -0,0 +1,69 @@
+package com.raoulvdberge.refinedstorage.benchmark;
+
+import com.raoulvdberge.refinedstorage.api.util.IComparer;
+import com.raoulvdberge.refinedstorage.apiimpl.storage.item.ItemStorageNBT;
+import com.raoulvdberge.refinedstorage.test.TestBootstrap;
+import com.raoulvdberge.refinedstorage.test.TestItems;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full 64k storage disk, with the capacity spread evenly over the types. Writing and reading it is in {@link ItemStorageNBTFormatBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemStorageNBTBenchmark {
+    static final int CAPACITY = 64000;
+
+    @Param({"10", "1000", "64000"})
+    private int types;
+
+    private ItemStorageNBT storage;
+    private ItemStack[] stacks;
+    private int next;
+
+    @Setup
+    public void setup() {
+        TestBootstrap.init();
+
+        storage = create(ItemStorageNBT.createNBT());
+        stacks = new ItemStack[types];
+
+        for (int i = 0; i < types; ++i) {
+            storage.insertItem(TestItems.create(i, 1), CAPACITY / types, false);
+
+            stacks[i] = TestItems.create(i, 1);
+        }
+    }
+
+    static ItemStorageNBT create(NBTTagCompound tag) {
+        return new ItemStorageNBT(tag, CAPACITY, null) {
+            @Override
+            public int getPriority() {
+                return 0;
+            }
+        };
+    }
+
+    private ItemStack nextStack() {
+        next = (next + 1) % types;
+
+        return stacks[next];
+    }
+
+    @Benchmark
+    public ItemStack extractInsert() {
+        ItemStack stack = nextStack();
+
+        ItemStack took = storage.extractItem(stack, 1, IComparer.COMPARE_DAMAGE | IComparer.COMPARE_NBT);
+
+        return storage.insertItem(took, took.stackSize, false);
+    }
+}
@@ -0,0 +1,64 @@
+package com.raoulvdberge.refinedstorage.benchmark;
+
+import com.raoulvdberge.refinedstorage.apiimpl.storage.item.ItemStorageNBT;
+import com.raoulvdberge.refinedstorage.test.LegacyItemStorageNBT;
+import com.raoulvdberge.refinedstorage.test.TestBootstrap;
+import com.raoulvdberge.refinedstorage.test.TestItems;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing and reading a full 64k storage disk in save protocol 1, the list of item tags of older worlds,
+ * and in save protocol 2, the packed int array. The size of both formats is checked in ItemStorageNBTFormatTest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemStorageNBTFormatBenchmark {
+    @Param({"10", "1000", "64000"})
+    private int types;
+
+    @Param({"1", "2"})
+    private int protocol;
+
+    private ItemStorageNBT storage;
+    private NBTTagCompound saved;
+
+    @Setup
+    public void setup() {
+        TestBootstrap.init();
+
+        storage = ItemStorageNBTBenchmark.create(ItemStorageNBT.createNBT());
+
+        for (int i = 0; i < types; ++i) {
+            storage.insertItem(TestItems.create(i, 1), ItemStorageNBTBenchmark.CAPACITY / types, false);
+        }
+
+        saved = write().copy();
+    }
+
+    @Benchmark
+    public NBTTagCompound write() {
+        if (protocol == 1) {
+            return LegacyItemStorageNBT.write(storage.getStacks());
+        }
+
+        storage.onStorageChanged();
+        storage.writeToNBT();
+
+        return storage.getTag();
+    }
+
+    @Benchmark
+    public Collection<ItemStack> read() {
+        // Reading doesn't modify the tag, so every iteration can read the same one
+        return ItemStorageNBTBenchmark.create(saved).getStacks();
+    }
+}
@@ -1,5 +1,7 @@
 package com.raoulvdberge.refinedstorage;
 
+import com.raoulvdberge.refinedstorage.command.CommandDisks;
+import com.raoulvdberge.refinedstorage.command.CommandProfiler;
 import com.raoulvdberge.refinedstorage.proxy.ProxyCommon;
 import net.minecraft.creativetab.CreativeTabs;
 import net.minecraft.item.Item;
@@ -12,6 +14,7 @@ import net.minecraftforge.fml.common.SidedProxy;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
+import net.minecraftforge.fml.common.event.FMLServerStartingEvent;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.common.network.simpleimpl.SimpleNetworkWrapper;
 
@@ -62,4 +65,10 @@ public final class RS {
     public void postInit(FMLPostInitializationEvent e) {
         PROXY.postInit(e);
     }
+
+    @EventHandler
+    public void serverStarting(FMLServerStartingEvent e) {
+        e.registerServerCommand(new CommandProfiler());
+        e.registerServerCommand(new CommandDisks());
+    }
 }
@@ -1,5 +1,6 @@
 package com.raoulvdberge.refinedstorage;
 
+import com.raoulvdberge.refinedstorage.apiimpl.network.NetworkMetricsExporter;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.config.ConfigElement;
 import net.minecraftforge.common.config.Configuration;
@@ -50,6 +51,7 @@ public final class RSConfig {
     //region Controller
     public int controllerCapacity;
     public boolean controllerUsesEnergy;
+    public int controllerNodeUpdateBudget;
     //endregion
 
     //region Wireless Transmitter
@@ -74,12 +76,24 @@ public final class RSConfig {
     public int fortuneUpgradeUsagePerFortune;
     //endregion
 
+    //region Metrics
+    public boolean metricsJmx;
+    public int metricsExportInterval;
+    public String metricsExportFormat;
+    //endregion
+
+    //region Misc
+    public boolean debugRedstoneCache;
+    public boolean debugNBTTagPool;
+    //endregion
+
     //region Categories
     private static final String ENERGY = "energy";
     private static final String CONTROLLER = "controller";
     private static final String WIRELESS_TRANSMITTER = "wirelessTransmitter";
     private static final String WIRELESS_GRID = "wirelessGrid";
     private static final String UPGRADES = "upgrades";
+    private static final String METRICS = "metrics";
     private static final String MISC = "misc";
     //endregion
 
@@ -139,6 +153,7 @@ public final class RSConfig {
         //region Controller
         controllerCapacity = config.getInt("capacity", CONTROLLER, 32000, 0, Integer.MAX_VALUE, "The energy capacity of the Controller");
         controllerUsesEnergy = config.getBoolean("usesEnergy", CONTROLLER, true, "Whether the Controller uses energy");
+        controllerNodeUpdateBudget = config.getInt("nodeUpdateBudget", CONTROLLER, 10, 0, 50, "The time in milliseconds per tick that a Controller may spend updating the machines in its network, the rest is done in the next tick (0 for no limit)");
         //endregion
 
         //region Wireless Transmitter
@@ -163,6 +178,17 @@ public final class RSConfig {
         fortuneUpgradeUsagePerFortune = config.getInt("fortune", UPGRADES, 10, 0, Integer.MAX_VALUE, "The additional energy used by the Fortune Upgrade, multiplied by the level of the enchantment");
         //endregion
 
+        //region Metrics
+        metricsJmx = config.getBoolean("jmx", METRICS, false, "Whether the metrics of every network are registered as JMX MBeans, applies to controllers that are loaded afterwards");
+        metricsExportInterval = config.getInt("exportInterval", METRICS, 0, 0, 86400, "The interval in seconds at which the metrics of every network are appended to a file in the refinedstorage/metrics folder of the world, 0 to disable");
+        metricsExportFormat = config.getString("exportFormat", METRICS, NetworkMetricsExporter.FORMAT_CSV, "The format of the exported metrics", new String[]{NetworkMetricsExporter.FORMAT_CSV, NetworkMetricsExporter.FORMAT_JSON});
+        //endregion
+
+        //region Misc
+        debugRedstoneCache = config.getBoolean("debugRedstoneCache", MISC, false, "Whether machines check their cached redstone signal against the world every time and log when it is out of date, for debugging");
+        debugNBTTagPool = config.getBoolean("debugNBTTagPool", MISC, false, "Whether shared NBT tags of stored items are checked for changes every time they are used, a changed tag crashes with the tag in the error, for debugging");
+        //endregion
+
         if (config.hasChanged()) {
             config.save();
         }
@@ -177,6 +203,7 @@ public final class RSConfig {
         list.addAll(new ConfigElement(config.getCategory(UPGRADES)).getChildElements());
         list.addAll(new ConfigElement(config.getCategory(WIRELESS_TRANSMITTER)).getChildElements());
         list.addAll(new ConfigElement(config.getCategory(WIRELESS_GRID)).getChildElements());
+        list.addAll(new ConfigElement(config.getCategory(METRICS)).getChildElements());
         list.addAll(new ConfigElement(config.getCategory(MISC)).getChildElements());
 
         return list;
@@ -2,6 +2,7 @@ package com.raoulvdberge.refinedstorage;
 
 import com.raoulvdberge.refinedstorage.api.network.INetworkMaster;
 import com.raoulvdberge.refinedstorage.api.storage.AccessType;
+import com.raoulvdberge.refinedstorage.api.storage.IStorage;
 import com.raoulvdberge.refinedstorage.api.util.IFluidStackList;
 import com.raoulvdberge.refinedstorage.api.util.IItemStackList;
 import com.raoulvdberge.refinedstorage.apiimpl.API;
@@ -35,8 +36,11 @@ import org.apache.commons.lang3.tuple.Pair;
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
-import java.util.function.Function;
+import java.util.Map;
+import java.util.function.IntFunction;
 
 public final class RSUtils {
     public static final ItemStack EMPTY_BUCKET = new ItemStack(Items.BUCKET);
@@ -51,12 +55,31 @@ public final class RSUtils {
         QUANTITY_FORMATTER.setRoundingMode(RoundingMode.DOWN);
     }
 
+    /**
+     * Sorts storages on priority, and then on the amount stored.
+     * Only called when the storages are invalidated, a priority change marks the storages dirty.
+     */
+    public static void sortStorages(List<? extends IStorage> storages) {
+        // getStored() walks the whole inventory for external storages, so ask every storage only once
+        Map<IStorage, Integer> stored = new HashMap<>();
+
+        for (IStorage storage : storages) {
+            stored.put(storage, storage.getStored());
+        }
+
+        storages.sort((left, right) -> {
+            int compare = Integer.compare(right.getPriority(), left.getPriority());
+
+            return compare != 0 ? compare : Integer.compare(stored.get(right), stored.get(left));
+        });
+    }
+
     public static void writeItemStack(ByteBuf buf, INetworkMaster network, ItemStack stack) {
         buf.writeInt(Item.getIdFromItem(stack.getItem()));
         buf.writeInt(stack.stackSize);
         buf.writeInt(stack.getItemDamage());
         ByteBufUtils.writeTag(buf, stack.getTagCompound());
-        buf.writeInt(API.instance().getItemStackHashCode(stack));
+        buf.writeLong(network.getItemStorageCache().getList().getId(stack));
         buf.writeBoolean(network.hasPattern(stack));
     }
 
@@ -71,15 +94,23 @@ public final class RSUtils {
         return Pair.of(buf.readInt(), new FluidStack(FluidRegistry.getFluid(ByteBufUtils.readUTF8String(buf)), buf.readInt(), ByteBufUtils.readTag(buf)));
     }
 
-    public static void constructFromDrive(ItemStack disk, int slot, ItemStorageNBT[] itemStorages, FluidStorageNBT[] fluidStorages, Function<ItemStack, ItemStorageNBT> itemStorageSupplier, Function<ItemStack, FluidStorageNBT> fluidStorageNBTSupplier) {
-        if (disk == null) {
+    public static void constructFromDrive(ItemStack disk, int slot, ItemStorageNBT[] itemStorages, FluidStorageNBT[] fluidStorages, IntFunction<ItemStorageNBT> itemStorageSupplier, IntFunction<FluidStorageNBT> fluidStorageNBTSupplier) {
+        // The old storages have to let go of their disk first, otherwise the disk would be seen as a copy
+        if (itemStorages[slot] != null) {
+            itemStorages[slot].releaseDisk();
             itemStorages[slot] = null;
+        }
+
+        if (fluidStorages[slot] != null) {
+            fluidStorages[slot].releaseDisk();
             fluidStorages[slot] = null;
-        } else {
+        }
+
+        if (disk != null) {
             if (disk.getItem() == RSItems.STORAGE_DISK) {
-                itemStorages[slot] = itemStorageSupplier.apply(disk);
+                itemStorages[slot] = itemStorageSupplier.apply(slot);
             } else if (disk.getItem() == RSItems.FLUID_STORAGE_DISK) {
-                fluidStorages[slot] = fluidStorageNBTSupplier.apply(disk);
+                fluidStorages[slot] = fluidStorageNBTSupplier.apply(slot);
             }
         }
     }
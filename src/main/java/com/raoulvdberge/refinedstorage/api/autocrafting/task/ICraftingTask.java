@@ -106,6 +106,14 @@ public interface ICraftingTask {
      */
     boolean isValid();
 
+    /**
+     * Used to check if the network items changed since this task was calculated, in which case the result may be off.
+     * {@link ICraftingTask#calculate()} must be run before this
+     *
+     * @return true if the items in the network changed since the calculation, false if they didn't or if this task wasn't calculated
+     */
+    boolean isStale();
+
     /**
      * @return whether this crafting task has missing items
      */
@@ -14,6 +14,7 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraftforge.fluids.FluidStack;
+import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -33,6 +34,12 @@ public interface INetworkMaster {
      */
     int getEnergyUsage();
 
+    /**
+     * Marks the energy usage as stale, it will be recalculated at most once the next time it is requested.
+     * Call this when the energy usage of a node changes, nodes that are added, removed or that start or stop running are handled already.
+     */
+    void markEnergyUsageDirty();
+
     /**
      * @return the position of this network in the world
      */
@@ -102,6 +109,26 @@ public interface INetworkMaster {
      */
     void rebuildPatterns();
 
+    /**
+     * Marks the pattern list as stale, it will be rebuilt at most once at the end of the network tick.
+     */
+    void markPatternsDirty();
+
+    /**
+     * Marks the item storage cache as stale, it will be invalidated at most once at the end of the network tick.
+     */
+    void markItemStorageDirty();
+
+    /**
+     * Marks the fluid storage cache as stale, it will be invalidated at most once at the end of the network tick.
+     */
+    void markFluidStorageDirty();
+
+    /**
+     * Marks the node graph as stale, it will be rebuilt at most once at the end of the network tick.
+     */
+    void markNodesDirty();
+
     /**
      * Returns crafting patterns from an item stack.
      *
@@ -210,6 +237,13 @@ public interface INetworkMaster {
      */
     void sendItemStorageDeltaToClient(ItemStack stack, int delta);
 
+    /**
+     * Sends multiple item storage changes in one packet to all clients that are watching a grid connected to this network.
+     *
+     * @param deltas pairs of the stack and the delta
+     */
+    void sendItemStorageDeltaToClient(List<Pair<ItemStack, Integer>> deltas);
+
     /**
      * Sends a grid update packet with all the fluids to all clients that are watching a grid connected to this network.
      */
@@ -228,6 +262,13 @@ public interface INetworkMaster {
      */
     void sendFluidStorageDeltaToClient(FluidStack stack, int delta);
 
+    /**
+     * Sends multiple fluid storage changes in one packet to all clients that are watching a grid connected to this network.
+     *
+     * @param deltas pairs of the stack and the delta
+     */
+    void sendFluidStorageDeltaToClient(List<Pair<FluidStack, Integer>> deltas);
+
     /**
      * Sends a crafting monitor update to all players that are watching a crafting monitor.
      */
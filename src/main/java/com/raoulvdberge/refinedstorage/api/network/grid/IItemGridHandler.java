@@ -1,6 +1,6 @@
 package com.raoulvdberge.refinedstorage.api.network.grid;
 
-import com.raoulvdberge.refinedstorage.api.IRSAPI;
+import com.raoulvdberge.refinedstorage.api.util.IItemStackList;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.ItemStack;
 
@@ -17,11 +17,11 @@ public interface IItemGridHandler {
     /**
      * Called when a player tries to extract an item from the grid.
      *
-     * @param hash   the hash of the item we're trying to extract, see {@link IRSAPI#getItemStackHashCode(ItemStack)}
+     * @param id     the id of the item we're trying to extract, see {@link IItemStackList#getId(ItemStack)}
      * @param flags  how we are extracting
      * @param player the player that is attempting the extraction
      */
-    void onExtract(int hash, int flags, EntityPlayerMP player);
+    void onExtract(long id, int flags, EntityPlayerMP player);
 
     /**
      * Called when a player tries to insert an item in the grid.
@@ -44,18 +44,18 @@ public interface IItemGridHandler {
     /**
      * Called when a player requests the crafting preview window to be opened.
      *
-     * @param hash     the hash of the item we want a preview for, see {@link IRSAPI#getItemStackHashCode(ItemStack)}
+     * @param id       the id of the item we want a preview for, see {@link IItemStackList#getId(ItemStack)}
      * @param quantity the amount of that item that we need a preview for
      */
-    void onCraftingPreviewRequested(EntityPlayerMP player, int hash, int quantity);
+    void onCraftingPreviewRequested(EntityPlayerMP player, long id, int quantity);
 
     /**
      * Called when a player requested crafting for an item.
      *
-     * @param hash     the hash of the item we're requesting crafting for, see {@link IRSAPI#getItemStackHashCode(ItemStack)}
+     * @param id       the id of the item we're requesting crafting for, see {@link IItemStackList#getId(ItemStack)}
      * @param quantity the amount of that item that has to be crafted
      */
-    void onCraftingRequested(int hash, int quantity);
+    void onCraftingRequested(long id, int quantity);
 
     /**
      * Called when a player wants to cancel a crafting task.
@@ -1,12 +1,12 @@
 package com.raoulvdberge.refinedstorage.api.storage;
 
-import java.util.List;
+import java.util.Collection;
 
 public interface IStorage<T> {
     /**
-     * @return stacks stored in this storage
+     * @return stacks stored in this storage, the stacks are owned by this storage and may not be modified
      */
-    List<T> getStacks();
+    Collection<T> getStacks();
 
     /**
      * @return the amount of fluids stored in this storage
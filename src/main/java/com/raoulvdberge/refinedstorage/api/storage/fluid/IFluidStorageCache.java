@@ -17,22 +17,32 @@ import java.util.List;
 public interface IFluidStorageCache {
     /**
      * Invalidates the cache.
-     * Typically called when a {@link IFluidStorageProvider} is added or removed from the network.
+     * Typically called when a {@link IFluidStorageProvider} is added or removed from the network, or when the access type of a storage changes.
+     * <p>
+     * Only the storages that were added or removed since the last invalidation are walked, the changes are sent as deltas.
      */
     void invalidate();
 
     /**
-     * Adds an item to the cache.
+     * Invalidates the contents of a single storage.
+     * Typically called when a storage was modified outside of the network, for example the tank behind an external storage.
+     *
+     * @param storage the storage that changed
+     */
+    void invalidate(@Nonnull IFluidStorage storage);
+
+    /**
+     * Adds a fluid to the cache.
      * <p>
      * Note that this doesn't modify any of the connected storages, but just modifies the cache.
      * Use {@link INetworkMaster#insertFluid(FluidStack, int, boolean)} to add a fluid to an actual storage.
      * <p>
      * Will merge it with another fluid if it already exists.
      *
-     * @param stack      the stack to add, do NOT modify
-     * @param rebuilding true if this method is called while rebuilding, false otherwise
+     * @param storage the storage the fluid was inserted in
+     * @param stack   the stack to add, do NOT modify
      */
-    void add(@Nonnull FluidStack stack, boolean rebuilding);
+    void add(@Nonnull IFluidStorage storage, @Nonnull FluidStack stack);
 
     /**
      * Removes a fluid from the cache.
@@ -40,9 +50,10 @@ public interface IFluidStorageCache {
      * Note that this doesn't modify any of the connected storages, but just modifies the cache.
      * Use {@link INetworkMaster#extractFluid(FluidStack, int, int)} to remove an fluid from an actual storage.
      *
-     * @param stack the fluid to remove, do NOT modify
+     * @param storage the storage the fluid was extracted from
+     * @param stack   the fluid to remove, do NOT modify
      */
-    void remove(@Nonnull FluidStack stack);
+    void remove(@Nonnull IFluidStorage storage, @Nonnull FluidStack stack);
 
     /**
      * @return the list behind this cache
@@ -50,7 +61,7 @@ public interface IFluidStorageCache {
     IFluidStackList getList();
 
     /**
-     * @return the fluid storages connected to this network
+     * @return the fluid storages connected to this network, sorted on priority
      */
     List<IFluidStorage> getStorages();
 }
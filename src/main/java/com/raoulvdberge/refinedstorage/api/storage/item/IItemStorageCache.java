@@ -17,10 +17,20 @@ import java.util.List;
 public interface IItemStorageCache {
     /**
      * Invalidates the cache.
-     * Typically called when a {@link IItemStorageProvider} is added or removed from the network.
+     * Typically called when a {@link IItemStorageProvider} is added or removed from the network, or when the access type of a storage changes.
+     * <p>
+     * Only the storages that were added or removed since the last invalidation are walked, the changes are sent as deltas.
      */
     void invalidate();
 
+    /**
+     * Invalidates the contents of a single storage.
+     * Typically called when a storage was modified outside of the network, for example the inventory behind an external storage.
+     *
+     * @param storage the storage that changed
+     */
+    void invalidate(@Nonnull IItemStorage storage);
+
     /**
      * Adds an item to the cache.
      * <p>
@@ -29,10 +39,10 @@ public interface IItemStorageCache {
      * <p>
      * Will merge it with another item if it already exists.
      *
-     * @param stack      the stack to add, do NOT modify
-     * @param rebuilding true if this method is called while rebuilding, false otherwise
+     * @param storage the storage the item was inserted in
+     * @param stack   the stack to add, do NOT modify
      */
-    void add(@Nonnull ItemStack stack, boolean rebuilding);
+    void add(@Nonnull IItemStorage storage, @Nonnull ItemStack stack);
 
     /**
      * Removes an item from the cache.
@@ -40,8 +50,32 @@ public interface IItemStorageCache {
      * Note that this doesn't modify any of the connected storages, but just modifies the cache.
      * Use {@link INetworkMaster#extractItem(ItemStack, int, int)} to remove an item from an actual storage.
      *
-     * @param stack the item to remove, do NOT modify
+     * @param storage the storage the item was extracted from
+     * @param stack   the item to remove, do NOT modify
+     */
+    void remove(@Nonnull IItemStorage storage, @Nonnull ItemStack stack);
+
+    /**
+     * Adds an item to the cache without knowing the storage it was inserted in.
+     * <p>
+     * The cache keeps track of what every storage holds, so this re-reads all connected storages like {@link #invalidate(IItemStorage)}.
+     *
+     * @param stack      ignored, the storages are re-read instead
+     * @param rebuilding ignored
+     * @deprecated use {@link #add(IItemStorage, ItemStack)}, or {@link #invalidate(IItemStorage)} when a storage was modified outside of the network
+     */
+    @Deprecated
+    void add(@Nonnull ItemStack stack, boolean rebuilding);
+
+    /**
+     * Removes an item from the cache without knowing the storage it was extracted from.
+     * <p>
+     * The cache keeps track of what every storage holds, so this re-reads all connected storages like {@link #invalidate(IItemStorage)}.
+     *
+     * @param stack ignored, the storages are re-read instead
+     * @deprecated use {@link #remove(IItemStorage, ItemStack)}, or {@link #invalidate(IItemStorage)} when a storage was modified outside of the network
      */
+    @Deprecated
     void remove(@Nonnull ItemStack stack);
 
     /**
@@ -50,7 +84,40 @@ public interface IItemStorageCache {
     IItemStackList getList();
 
     /**
-     * @return the item storages connected to this network
+     * Returns an immutable snapshot of the list, which is safe to read from other threads.
+     * The snapshot is only rebuilt when the list changed since the last one was taken.
+     * <p>
+     * Do NOT modify the snapshot, use {@link IItemStackList#copy()} to get a list that can be modified.
+     * Snapshots are taken while holding the lock of this cache, code that temporarily modifies {@link #getList()} should hold that lock as well.
+     *
+     * @return a snapshot of the list behind this cache
+     */
+    IItemStackList getSnapshot();
+
+    /**
+     * @return the version of the list, which changes every time the list changes
+     */
+    long getVersion();
+
+    /**
+     * @return the item storages connected to this network, sorted on priority
      */
     List<IItemStorage> getStorages();
+
+    /**
+     * Returns the storages that hold an item, including write only storages.
+     *
+     * @param stack the item, compared on damage and NBT
+     * @return the storages that hold the item, sorted on priority
+     */
+    List<IItemStorage> getStorages(@Nonnull ItemStack stack);
+
+    /**
+     * Returns the storages to try when inserting an item, within the same priority the storages that already hold the item come first.
+     * The order is kept until the storages or the storages that hold the item change, do NOT modify it.
+     *
+     * @param stack the item, compared on damage and NBT
+     * @return all item storages, sorted on priority
+     */
+    List<IItemStorage> getInsertionOrder(@Nonnull ItemStack stack);
 }
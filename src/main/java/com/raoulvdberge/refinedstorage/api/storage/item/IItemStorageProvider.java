@@ -4,6 +4,10 @@ import java.util.List;
 
 /**
  * Represents a node that provides item storage to the network.
+ * <p>
+ * The network only reads a storage when it is connected, after that it keeps track of the changes that go through the network.
+ * A storage that is modified outside of the network, like the inventory behind an external storage, should call
+ * {@link IItemStorageCache#invalidate(IItemStorage)} when that happens, otherwise the network won't see the change.
  */
 public interface IItemStorageProvider {
     /**
@@ -1,6 +1,5 @@
 package com.raoulvdberge.refinedstorage.api.util;
 
-import com.raoulvdberge.refinedstorage.api.IRSAPI;
 import net.minecraft.item.ItemStack;
 
 import javax.annotation.Nonnull;
@@ -83,7 +82,7 @@ public interface IItemStackList {
      *
      * @param stack the stack to search for
      * @param flags the flags to compare on, see {@link IComparer}
-     * @return the stack, or null if no stack was found
+     * @return the stack, or null if no stack was found, the stack is owned by this list and may not be modified
      */
     @Nullable
     ItemStack get(@Nonnull ItemStack stack, int flags);
@@ -91,11 +90,27 @@ public interface IItemStackList {
     /**
      * Returns a stack.
      *
-     * @param hash the hash of the stack to search for, see {@link IRSAPI#getItemStackHashCode(ItemStack)}
+     * @param id the id of the stack to search for, see {@link #getId(ItemStack)}
      * @return the stack, or null if no stack was found
      */
     @Nullable
-    ItemStack get(int hash);
+    ItemStack get(long id);
+
+    /**
+     * Returns the id of a stack in this list.
+     * The id is unique across all lists and copies of this list keep it. A stack that is removed keeps its id until
+     * {@link #releaseIds()} is called, so the removal can still be sent to clients and the stack gets the same id when it comes back.
+     *
+     * @param stack the stack to get the id for
+     * @return the id, or -1 if the stack isn't in this list and its id was released
+     */
+    long getId(@Nonnull ItemStack stack);
+
+    /**
+     * Forgets the ids of the stacks that were removed or cleared since the last call, see {@link #getId(ItemStack)}.
+     * Call this once nothing refers to those ids anymore, for example after the removals were sent to the clients.
+     */
+    void releaseIds();
 
     /**
      * Clears the list.
@@ -113,13 +128,16 @@ public interface IItemStackList {
     boolean isEmpty();
 
     /**
-     * @return a collection of stacks in this list
+     * @return a collection of stacks in this list, the stacks are owned by this list and may not be modified
      */
     @Nonnull
     Collection<ItemStack> getStacks();
 
     /**
-     * @return a new copy of this list, with the stacks in it copied as well
+     * The stacks are shared between both lists until one of them modifies a stack through this list,
+     * so stacks returned by either list may not be modified directly.
+     *
+     * @return a new copy of this list
      */
     @Nonnull
     IItemStackList copy();
@@ -18,6 +18,7 @@ import com.raoulvdberge.refinedstorage.apiimpl.solderer.SoldererRegistry;
 import com.raoulvdberge.refinedstorage.apiimpl.util.Comparer;
 import com.raoulvdberge.refinedstorage.apiimpl.util.FluidStackList;
 import com.raoulvdberge.refinedstorage.apiimpl.util.ItemStackList;
+import com.raoulvdberge.refinedstorage.apiimpl.util.NBTTagPool;
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fml.common.discovery.ASMDataTable;
@@ -85,12 +86,12 @@ public class API implements IRSAPI {
 
     @Override
     public int getItemStackHashCode(ItemStack stack) {
-        return stack.getItem().hashCode() * (stack.getItemDamage() + 1) * (stack.hasTagCompound() ? stack.getTagCompound().hashCode() : 1);
+        return stack.getItem().hashCode() * (stack.getItemDamage() + 1) * (stack.hasTagCompound() ? NBTTagPool.hashCode(stack.getTagCompound()) : 1);
     }
 
     @Override
     public int getFluidStackHashCode(FluidStack stack) {
-        return stack.getFluid().hashCode() * (stack.tag != null ? stack.tag.hashCode() : 1);
+        return stack.getFluid().hashCode() * (stack.tag != null ? NBTTagPool.hashCode(stack.tag) : 1);
     }
 
     public static IRSAPI instance() {
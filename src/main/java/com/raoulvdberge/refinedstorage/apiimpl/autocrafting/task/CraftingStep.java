@@ -9,6 +9,7 @@ import com.raoulvdberge.refinedstorage.api.util.IComparer;
 import com.raoulvdberge.refinedstorage.api.util.IFluidStackList;
 import com.raoulvdberge.refinedstorage.api.util.IItemStackList;
 import com.raoulvdberge.refinedstorage.apiimpl.API;
+import com.raoulvdberge.refinedstorage.apiimpl.util.ItemStackKey;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
@@ -23,13 +24,14 @@ import java.util.stream.Collectors;
 public abstract class CraftingStep implements ICraftingStep {
     public static final String NBT_CRAFTING_STEP_TYPE = "CraftingStepType";
     private static final String NBT_SATISFIED = "Satisfied_%d";
+    private static final String NBT_SATISFIED_OUTPUT = "SatisfiedOutput_%d";
     private static final String NBT_PATTERN = "Pattern";
     private static final String NBT_PATTERN_CONTAINER = "PatternContainer";
     private static final String NBT_STARTED_PROCESSING = "StartedProcessing";
 
     protected INetworkMaster network;
     protected ICraftingPattern pattern;
-    protected Map<Integer, Integer> satisfied;
+    protected Map<ItemStackKey, Integer> satisfied;
     protected boolean startedProcessing;
 
     public CraftingStep(INetworkMaster network, ICraftingPattern pattern) {
@@ -52,12 +54,18 @@ public abstract class CraftingStep implements ICraftingStep {
                 this.pattern = ((ICraftingPatternProvider) patternStack.getItem()).create(network.getNetworkWorld(), patternStack, (ICraftingPatternContainer) container);
                 this.satisfied = new HashMap<>(pattern.getOutputs().size());
 
-                for (ItemStack stack : pattern.getOutputs()) {
-                    int hashcode = API.instance().getItemStackHashCode(stack);
-                    String id = String.format(NBT_SATISFIED, hashcode);
+                List<ItemStack> outputs = pattern.getOutputs();
+
+                for (int i = 0; i < outputs.size(); ++i) {
+                    String id = String.format(NBT_SATISFIED_OUTPUT, i);
+
+                    // Steps saved before outputs were stored by index use the item stack hash code
+                    if (!tag.hasKey(id)) {
+                        id = String.format(NBT_SATISFIED, API.instance().getItemStackHashCode(outputs.get(i)));
+                    }
 
                     if (tag.hasKey(id)) {
-                        this.satisfied.put(hashcode, tag.getInteger(id));
+                        this.satisfied.put(new ItemStackKey(outputs.get(i)), tag.getInteger(id));
                     }
                 }
 
@@ -98,7 +106,7 @@ public abstract class CraftingStep implements ICraftingStep {
     @Override
     public boolean hasReceivedOutputs() {
         for (ItemStack stack : pattern.getOutputs()) {
-            Integer received = satisfied.get(API.instance().getItemStackHashCode(stack));
+            Integer received = satisfied.get(new ItemStackKey(stack));
             if (received == null || stack.stackSize > received) {
                 return false;
             }
@@ -109,22 +117,22 @@ public abstract class CraftingStep implements ICraftingStep {
 
     @Override
     public boolean hasReceivedOutput(ItemStack stack) {
-        Integer received = satisfied.get(API.instance().getItemStackHashCode(stack));
+        Integer received = satisfied.get(new ItemStackKey(stack));
         return received != null && received >= stack.stackSize;
     }
 
     @Override
     public boolean onReceiveOutput(ItemStack stack) {
         for (ItemStack output : pattern.getOutputs()) {
-            int hashcode = API.instance().getItemStackHashCode(output);
-            Integer received = satisfied.get(hashcode);
+            ItemStackKey key = new ItemStackKey(output);
+            Integer received = satisfied.get(key);
             if (received == null) {
                 received = 0;
             }
             if (API.instance().getComparer().isEqual(stack, output, CraftingTask.DEFAULT_COMPARE | (getPattern().isOredict() ? IComparer.COMPARE_OREDICT : 0))) {
                 if (received < output.stackSize) {
                     int toReceive = Math.min(output.stackSize - received, stack.stackSize);
-                    satisfied.put(hashcode, received + toReceive);
+                    satisfied.put(key, received + toReceive);
                     stack.stackSize -= toReceive;
 
                     network.sendCraftingMonitorUpdate();
@@ -141,8 +149,14 @@ public abstract class CraftingStep implements ICraftingStep {
 
     @Override
     public NBTTagCompound writeToNBT(NBTTagCompound tag) {
-        for (Map.Entry<Integer, Integer> entry : satisfied.entrySet()) {
-            tag.setInteger(String.format(NBT_SATISFIED, entry.getKey()), entry.getValue());
+        List<ItemStack> outputs = pattern.getOutputs();
+
+        for (int i = 0; i < outputs.size(); ++i) {
+            Integer received = satisfied.get(new ItemStackKey(outputs.get(i)));
+
+            if (received != null) {
+                tag.setInteger(String.format(NBT_SATISFIED_OUTPUT, i), received);
+            }
         }
 
         tag.setTag(NBT_PATTERN, pattern.getStack().serializeNBT());
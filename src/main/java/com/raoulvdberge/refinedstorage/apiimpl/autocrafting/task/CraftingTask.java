@@ -9,6 +9,7 @@ import com.raoulvdberge.refinedstorage.api.autocrafting.preview.ICraftingPreview
 import com.raoulvdberge.refinedstorage.api.autocrafting.task.ICraftingStep;
 import com.raoulvdberge.refinedstorage.api.autocrafting.task.ICraftingTask;
 import com.raoulvdberge.refinedstorage.api.network.INetworkMaster;
+import com.raoulvdberge.refinedstorage.api.storage.item.IItemStorageCache;
 import com.raoulvdberge.refinedstorage.api.util.IComparer;
 import com.raoulvdberge.refinedstorage.api.util.IFluidStackList;
 import com.raoulvdberge.refinedstorage.api.util.IItemStackList;
@@ -16,6 +17,7 @@ import com.raoulvdberge.refinedstorage.apiimpl.API;
 import com.raoulvdberge.refinedstorage.apiimpl.autocrafting.craftingmonitor.*;
 import com.raoulvdberge.refinedstorage.apiimpl.autocrafting.preview.CraftingPreviewElementFluidStack;
 import com.raoulvdberge.refinedstorage.apiimpl.autocrafting.preview.CraftingPreviewElementItemStack;
+import com.raoulvdberge.refinedstorage.apiimpl.util.ItemStackKey;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
@@ -50,6 +52,8 @@ public class CraftingTask implements ICraftingTask {
     private Deque<FluidStack> toInsertFluids = new ArrayDeque<>();
     private IFluidStackList toTakeFluids = API.instance().createFluidStackList();
     private IFluidStackList tookFluids = API.instance().createFluidStackList();
+    // The version of the item storage cache this task was calculated against, -1 if it wasn't calculated
+    private long calculatedVersion = -1;
 
     public CraftingTask(INetworkMaster network, @Nullable ItemStack requested, ICraftingPattern pattern, int quantity) {
         this.network = network;
@@ -69,8 +73,13 @@ public class CraftingTask implements ICraftingTask {
 
     @Override
     public void calculate() {
-        // Copy here might be expensive but since it is only executed once it isn't a big impact
-        IItemStackList networkList = network.getItemStorageCache().getList().copy();
+        IItemStorageCache cache = network.getItemStorageCache();
+
+        // Taken before the snapshot, so a change in between makes this task look stale instead of the other way around
+        calculatedVersion = cache.getVersion();
+
+        // The snapshot shares its stacks, the copy only duplicates the stacks that the calculation takes from
+        IItemStackList networkList = cache.getSnapshot().copy();
         networkList.clean(); // Remove the zero stacks
         IItemStackList toInsert = API.instance().createItemStackList();
 
@@ -125,6 +134,8 @@ public class CraftingTask implements ICraftingTask {
                     actualInputs.add(inputStack.copy());
                     input.stackSize -= takeQuantity;
                     networkList.remove(inputStack, true);
+                    // The list copies a shared stack before it modifies it, so look it up again
+                    networkStack = networkList.get(inputStack);
                 } else {
                     ICraftingPattern inputPattern = network.getPattern(input, compare);
 
@@ -180,6 +191,15 @@ public class CraftingTask implements ICraftingTask {
         usedPatterns.remove(pattern);
     }
 
+    private boolean canStartProcessing(ICraftingStep step) {
+        IItemStorageCache cache = network.getItemStorageCache();
+
+        // Checking removes the items from the list and undoes that after, snapshots may not be taken in between
+        synchronized (cache) {
+            return step.canStartProcessing(cache.getList(), tookFluids);
+        }
+    }
+
     private boolean doFluidCalculation(IItemStackList networkList, ItemStack input, IItemStackList toInsert) {
         FluidStack fluidInItem = RSUtils.getFluidFromStack(input, true);
 
@@ -259,7 +279,7 @@ public class CraftingTask implements ICraftingTask {
             }
 
             if (timesUsed++ <= container.getSpeedUpdateCount()) {
-                if (!step.hasStartedProcessing() && step.canStartProcessing(network.getItemStorageCache().getList(), tookFluids)) {
+                if (!step.hasStartedProcessing() && canStartProcessing(step)) {
                     step.setStartedProcessing();
                     step.execute(toInsertItems, toInsertFluids);
                     usedContainers.put(container, timesUsed);
@@ -371,7 +391,7 @@ public class CraftingTask implements ICraftingTask {
                             32
                         );
 
-                        if (!step.hasStartedProcessing() && !step.canStartProcessing(network.getItemStorageCache().getList(), tookFluids)) {
+                        if (!step.hasStartedProcessing() && !canStartProcessing(step)) {
                             element = new CraftingMonitorElementInfo(element, "gui.refinedstorage:crafting_monitor.waiting_for_items");
                         }
 
@@ -438,6 +458,11 @@ public class CraftingTask implements ICraftingTask {
         return !recurseFound;
     }
 
+    @Override
+    public boolean isStale() {
+        return calculatedVersion != -1 && network.getItemStorageCache().getVersion() != calculatedVersion;
+    }
+
     @Override
     public boolean hasMissing() {
         return !missing.isEmpty();
@@ -449,37 +474,37 @@ public class CraftingTask implements ICraftingTask {
             return Collections.emptyList();
         }
 
-        Map<Integer, CraftingPreviewElementItemStack> map = new LinkedHashMap<>();
+        Map<ItemStackKey, CraftingPreviewElementItemStack> map = new LinkedHashMap<>();
 
         for (ItemStack stack : toCraft.getStacks()) {
-            int hash = API.instance().getItemStackHashCode(stack);
-            CraftingPreviewElementItemStack previewStack = map.get(hash);
+            ItemStackKey key = new ItemStackKey(stack);
+            CraftingPreviewElementItemStack previewStack = map.get(key);
             if (previewStack == null) {
                 previewStack = new CraftingPreviewElementItemStack(stack);
             }
             previewStack.addToCraft(stack.stackSize);
-            map.put(hash, previewStack);
+            map.put(key, previewStack);
         }
 
         for (ItemStack stack : missing.getStacks()) {
-            int hash = API.instance().getItemStackHashCode(stack);
-            CraftingPreviewElementItemStack previewStack = map.get(hash);
+            ItemStackKey key = new ItemStackKey(stack);
+            CraftingPreviewElementItemStack previewStack = map.get(key);
             if (previewStack == null) {
                 previewStack = new CraftingPreviewElementItemStack(stack);
             }
             previewStack.setMissing(true);
             previewStack.addToCraft(stack.stackSize);
-            map.put(hash, previewStack);
+            map.put(key, previewStack);
         }
 
         for (ItemStack stack : toTake.getStacks()) {
-            int hash = API.instance().getItemStackHashCode(stack);
-            CraftingPreviewElementItemStack previewStack = map.get(hash);
+            ItemStackKey key = new ItemStackKey(stack);
+            CraftingPreviewElementItemStack previewStack = map.get(key);
             if (previewStack == null) {
                 previewStack = new CraftingPreviewElementItemStack(stack);
             }
             previewStack.addAvailable(stack.stackSize);
-            map.put(hash, previewStack);
+            map.put(key, previewStack);
         }
 
         List<ICraftingPreviewElement> elements = new ArrayList<>(map.values());
@@ -0,0 +1,375 @@
+package com.raoulvdberge.refinedstorage.apiimpl.network;
+
+import com.raoulvdberge.refinedstorage.api.autocrafting.task.ICraftingStep;
+import com.raoulvdberge.refinedstorage.api.autocrafting.task.ICraftingTask;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fml.common.FMLLog;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Counters of a network, for capacity planning.
+ * <p>
+ * The counters are only written from the server thread. Once a second they are published in a {@link Sample},
+ * which is what JMX and the exported files read, so those never see a half updated state.
+ */
+public class NetworkMetrics implements NetworkMetricsMBean {
+    private long itemsInserted;
+    private long itemsExtracted;
+    private long fluidsInserted;
+    private long fluidsExtracted;
+    private long itemStorageInvalidations;
+    private long itemStorageInvalidationTime;
+    private long fluidStorageInvalidations;
+    private long fluidStorageInvalidationTime;
+    private long storageRefreshes;
+    private long gridFullSyncs;
+    private long gridDeltas;
+    private long gridItemUpdateBytes;
+    private long craftingTasksStarted;
+    private long craftingTasksFinished;
+    private long craftingTasksCancelled;
+    private long craftingSteps;
+    private long craftingStepTime;
+
+    // The steps that are processing, with the time they started
+    private Map<ICraftingStep, Long> processingSteps = new IdentityHashMap<>();
+
+    private volatile Sample sample = new Sample();
+    private Sample lastRolled = sample;
+    private long lastRoll = System.nanoTime();
+
+    private ObjectName name;
+
+    public static class Sample {
+        private long time = System.currentTimeMillis();
+        private long itemsInserted;
+        private long itemsExtracted;
+        private long fluidsInserted;
+        private long fluidsExtracted;
+        private double itemsInsertedPerSecond;
+        private double itemsExtractedPerSecond;
+        private double fluidsInsertedPerSecond;
+        private double fluidsExtractedPerSecond;
+        private long itemStorageInvalidations;
+        private double itemStorageInvalidationTime;
+        private long fluidStorageInvalidations;
+        private double fluidStorageInvalidationTime;
+        private long storageRefreshes;
+        private long gridFullSyncs;
+        private long gridDeltas;
+        private long gridItemUpdateBytes;
+        private long craftingTasksStarted;
+        private long craftingTasksFinished;
+        private long craftingTasksCancelled;
+        private double averageCraftingStepLatency;
+
+        /**
+         * @return the names of the values, in the order of {@link #getValues()}
+         */
+        public static List<String> getNames() {
+            return Arrays.asList(
+                "time",
+                "itemsInsertedPerSecond",
+                "itemsExtractedPerSecond",
+                "fluidsInsertedPerSecond",
+                "fluidsExtractedPerSecond",
+                "itemStorageInvalidations",
+                "itemStorageInvalidationTime",
+                "fluidStorageInvalidations",
+                "fluidStorageInvalidationTime",
+                "storageRefreshes",
+                "gridFullSyncs",
+                "gridDeltas",
+                "gridItemUpdateBytes",
+                "craftingTasksStarted",
+                "craftingTasksFinished",
+                "craftingTasksCancelled",
+                "averageCraftingStepLatency"
+            );
+        }
+
+        public List<Object> getValues() {
+            return Arrays.asList(
+                time,
+                itemsInsertedPerSecond,
+                itemsExtractedPerSecond,
+                fluidsInsertedPerSecond,
+                fluidsExtractedPerSecond,
+                itemStorageInvalidations,
+                itemStorageInvalidationTime,
+                fluidStorageInvalidations,
+                fluidStorageInvalidationTime,
+                storageRefreshes,
+                gridFullSyncs,
+                gridDeltas,
+                gridItemUpdateBytes,
+                craftingTasksStarted,
+                craftingTasksFinished,
+                craftingTasksCancelled,
+                averageCraftingStepLatency
+            );
+        }
+    }
+
+    public void onItemsInserted(int amount) {
+        itemsInserted += amount;
+    }
+
+    public void onItemsExtracted(int amount) {
+        itemsExtracted += amount;
+    }
+
+    public void onFluidsInserted(int amount) {
+        fluidsInserted += amount;
+    }
+
+    public void onFluidsExtracted(int amount) {
+        fluidsExtracted += amount;
+    }
+
+    /**
+     * @param time the time the invalidation took, in nanoseconds
+     */
+    public void onItemStorageInvalidated(long time) {
+        itemStorageInvalidations++;
+        itemStorageInvalidationTime += time;
+    }
+
+    /**
+     * @param time the time the invalidation took, in nanoseconds
+     */
+    public void onFluidStorageInvalidated(long time) {
+        fluidStorageInvalidations++;
+        fluidStorageInvalidationTime += time;
+    }
+
+    /**
+     * Called when the contents of a single storage are refreshed in a cache.
+     */
+    public void onStorageRefreshed() {
+        storageRefreshes++;
+    }
+
+    public void onGridFullSync() {
+        gridFullSyncs++;
+    }
+
+    public void onGridDelta() {
+        gridDeltas++;
+    }
+
+    public void onGridItemUpdateWritten(int bytes) {
+        gridItemUpdateBytes += bytes;
+    }
+
+    public void onCraftingTaskStarted() {
+        craftingTasksStarted++;
+    }
+
+    public void onCraftingTaskFinished() {
+        craftingTasksFinished++;
+    }
+
+    public void onCraftingTaskCancelled() {
+        craftingTasksCancelled++;
+    }
+
+    /**
+     * Tracks how long steps are processing, a step is done when it received its outputs or when its task is gone.
+     *
+     * @param tasks the crafting tasks of the network
+     */
+    public void updateCraftingSteps(List<ICraftingTask> tasks) {
+        long now = System.nanoTime();
+
+        Set<ICraftingStep> processing = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (ICraftingTask task : tasks) {
+            for (ICraftingStep step : task.getSteps()) {
+                if (step.hasStartedProcessing() && !step.hasReceivedOutputs()) {
+                    processing.add(step);
+
+                    processingSteps.putIfAbsent(step, now);
+                }
+            }
+        }
+
+        Iterator<Map.Entry<ICraftingStep, Long>> it = processingSteps.entrySet().iterator();
+
+        while (it.hasNext()) {
+            Map.Entry<ICraftingStep, Long> step = it.next();
+
+            if (!processing.contains(step.getKey())) {
+                craftingSteps++;
+                craftingStepTime += now - step.getValue();
+
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Publishes the counters in a new sample, should be called about once a second.
+     */
+    public void roll() {
+        long now = System.nanoTime();
+
+        double seconds = Math.max(now - lastRoll, 1) / 1000000000D;
+
+        Sample rolled = new Sample();
+
+        rolled.itemsInserted = itemsInserted;
+        rolled.itemsExtracted = itemsExtracted;
+        rolled.fluidsInserted = fluidsInserted;
+        rolled.fluidsExtracted = fluidsExtracted;
+        rolled.itemsInsertedPerSecond = (itemsInserted - lastRolled.itemsInserted) / seconds;
+        rolled.itemsExtractedPerSecond = (itemsExtracted - lastRolled.itemsExtracted) / seconds;
+        rolled.fluidsInsertedPerSecond = (fluidsInserted - lastRolled.fluidsInserted) / seconds;
+        rolled.fluidsExtractedPerSecond = (fluidsExtracted - lastRolled.fluidsExtracted) / seconds;
+        rolled.itemStorageInvalidations = itemStorageInvalidations;
+        rolled.itemStorageInvalidationTime = itemStorageInvalidationTime / 1000000D;
+        rolled.fluidStorageInvalidations = fluidStorageInvalidations;
+        rolled.fluidStorageInvalidationTime = fluidStorageInvalidationTime / 1000000D;
+        rolled.storageRefreshes = storageRefreshes;
+        rolled.gridFullSyncs = gridFullSyncs;
+        rolled.gridDeltas = gridDeltas;
+        rolled.gridItemUpdateBytes = gridItemUpdateBytes;
+        rolled.craftingTasksStarted = craftingTasksStarted;
+        rolled.craftingTasksFinished = craftingTasksFinished;
+        rolled.craftingTasksCancelled = craftingTasksCancelled;
+        rolled.averageCraftingStepLatency = craftingSteps == 0 ? 0 : craftingStepTime / (double) craftingSteps / 1000000D;
+
+        lastRoll = now;
+        lastRolled = rolled;
+
+        sample = rolled;
+    }
+
+    public Sample getSample() {
+        return sample;
+    }
+
+    /**
+     * Registers these metrics as an MBean, does nothing if they are already registered.
+     *
+     * @param dimension the dimension of the controller
+     * @param pos       the position of the controller
+     */
+    public void register(int dimension, BlockPos pos) {
+        if (name != null) {
+            return;
+        }
+
+        try {
+            name = new ObjectName("refinedstorage:type=Network,dimension=" + dimension + ",x=" + pos.getX() + ",y=" + pos.getY() + ",z=" + pos.getZ());
+
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            FMLLog.warning("Could not register the metrics of the network at %d, %d, %d in dimension %d: %s", pos.getX(), pos.getY(), pos.getZ(), dimension, e.getMessage());
+
+            name = null;
+        }
+    }
+
+    public void unregister() {
+        if (name == null) {
+            return;
+        }
+
+        try {
+            if (ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            FMLLog.warning("Could not unregister the metrics %s: %s", name, e.getMessage());
+        }
+
+        name = null;
+    }
+
+    @Override
+    public double getItemsInsertedPerSecond() {
+        return sample.itemsInsertedPerSecond;
+    }
+
+    @Override
+    public double getItemsExtractedPerSecond() {
+        return sample.itemsExtractedPerSecond;
+    }
+
+    @Override
+    public double getFluidsInsertedPerSecond() {
+        return sample.fluidsInsertedPerSecond;
+    }
+
+    @Override
+    public double getFluidsExtractedPerSecond() {
+        return sample.fluidsExtractedPerSecond;
+    }
+
+    @Override
+    public long getItemStorageInvalidations() {
+        return sample.itemStorageInvalidations;
+    }
+
+    @Override
+    public double getItemStorageInvalidationTime() {
+        return sample.itemStorageInvalidationTime;
+    }
+
+    @Override
+    public long getFluidStorageInvalidations() {
+        return sample.fluidStorageInvalidations;
+    }
+
+    @Override
+    public double getFluidStorageInvalidationTime() {
+        return sample.fluidStorageInvalidationTime;
+    }
+
+    @Override
+    public long getStorageRefreshes() {
+        return sample.storageRefreshes;
+    }
+
+    @Override
+    public long getGridFullSyncs() {
+        return sample.gridFullSyncs;
+    }
+
+    @Override
+    public long getGridDeltas() {
+        return sample.gridDeltas;
+    }
+
+    @Override
+    public long getGridItemUpdateBytes() {
+        return sample.gridItemUpdateBytes;
+    }
+
+    @Override
+    public long getCraftingTasksStarted() {
+        return sample.craftingTasksStarted;
+    }
+
+    @Override
+    public long getCraftingTasksFinished() {
+        return sample.craftingTasksFinished;
+    }
+
+    @Override
+    public long getCraftingTasksCancelled() {
+        return sample.craftingTasksCancelled;
+    }
+
+    @Override
+    public double getAverageCraftingStepLatency() {
+        return sample.averageCraftingStepLatency;
+    }
+}
@@ -0,0 +1,108 @@
+package com.raoulvdberge.refinedstorage.apiimpl.network;
+
+import com.google.gson.JsonObject;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.FMLLog;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Appends {@link NetworkMetrics.Sample}s to files in the world folder, one file per day.
+ * The format is either CSV with a header, or JSON with one object per line.
+ * <p>
+ * The line is built on the calling thread, the files are written on a single background thread so the tick never waits on the disk.
+ */
+public final class NetworkMetricsExporter {
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_JSON = "json";
+
+    // One thread, so lines are appended in the order they were exported
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Refined Storage metrics exporter");
+
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    private NetworkMetricsExporter() {
+    }
+
+    /**
+     * @param world  the world of the controller
+     * @param pos    the position of the controller
+     * @param sample the sample to export
+     * @param format {@link #FORMAT_CSV} or {@link #FORMAT_JSON}
+     */
+    public static void export(World world, BlockPos pos, NetworkMetrics.Sample sample, String format) {
+        File directory = new File(world.getSaveHandler().getWorldDirectory(), "refinedstorage/metrics");
+        File file = new File(directory, "network-metrics-" + LocalDate.now() + "." + format);
+
+        int dimension = world.provider.getDimension();
+
+        boolean json = FORMAT_JSON.equals(format);
+
+        String line = json ? toJson(dimension, pos, sample) : toCsv(dimension, pos, sample);
+        String header = json ? null : "dimension,x,y,z," + String.join(",", NetworkMetrics.Sample.getNames());
+
+        WRITER.execute(() -> write(directory, file, header, line));
+    }
+
+    private static void write(File directory, File file, String header, String line) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            FMLLog.warning("Could not create the metrics directory %s", directory);
+
+            return;
+        }
+
+        boolean isNew = !file.exists();
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8))) {
+            if (isNew && header != null) {
+                writer.write(header);
+                writer.write("\n");
+            }
+
+            writer.write(line);
+            writer.write("\n");
+        } catch (IOException e) {
+            FMLLog.warning("Could not export metrics to %s: %s", file, e.getMessage());
+        }
+    }
+
+    private static String toCsv(int dimension, BlockPos pos, NetworkMetrics.Sample sample) {
+        StringBuilder line = new StringBuilder();
+
+        line.append(dimension).append(',').append(pos.getX()).append(',').append(pos.getY()).append(',').append(pos.getZ());
+
+        for (Object value : sample.getValues()) {
+            line.append(',').append(value);
+        }
+
+        return line.toString();
+    }
+
+    private static String toJson(int dimension, BlockPos pos, NetworkMetrics.Sample sample) {
+        JsonObject object = new JsonObject();
+
+        object.addProperty("dimension", dimension);
+        object.addProperty("x", pos.getX());
+        object.addProperty("y", pos.getY());
+        object.addProperty("z", pos.getZ());
+
+        List<String> names = NetworkMetrics.Sample.getNames();
+        List<Object> values = sample.getValues();
+
+        for (int i = 0; i < names.size(); ++i) {
+            object.addProperty(names.get(i), (Number) values.get(i));
+        }
+
+        return object.toString();
+    }
+}
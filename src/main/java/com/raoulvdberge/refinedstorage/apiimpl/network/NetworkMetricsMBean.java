@@ -0,0 +1,40 @@
+package com.raoulvdberge.refinedstorage.apiimpl.network;
+
+/**
+ * The attributes of a {@link NetworkMetrics} as seen over JMX.
+ * Rates are per second over the last second, the other values are totals since the controller was loaded.
+ * Times are in milliseconds.
+ */
+public interface NetworkMetricsMBean {
+    double getItemsInsertedPerSecond();
+
+    double getItemsExtractedPerSecond();
+
+    double getFluidsInsertedPerSecond();
+
+    double getFluidsExtractedPerSecond();
+
+    long getItemStorageInvalidations();
+
+    double getItemStorageInvalidationTime();
+
+    long getFluidStorageInvalidations();
+
+    double getFluidStorageInvalidationTime();
+
+    long getStorageRefreshes();
+
+    long getGridFullSyncs();
+
+    long getGridDeltas();
+
+    long getGridItemUpdateBytes();
+
+    long getCraftingTasksStarted();
+
+    long getCraftingTasksFinished();
+
+    long getCraftingTasksCancelled();
+
+    double getAverageCraftingStepLatency();
+}
@@ -115,6 +115,8 @@ public class NetworkNodeGraph implements INetworkNodeGraph {
 
         this.nodes = newNodes;
 
+        controller.markEnergyUsageDirty();
+
         boolean changed = false;
 
         if (notify) {
@@ -150,16 +152,18 @@ public class NetworkNodeGraph implements INetworkNodeGraph {
         nodes.remove(node);
         nodes.add(node);
 
+        controller.markEnergyUsageDirty();
+
         if (node instanceof ICraftingPatternContainer) {
-            controller.rebuildPatterns();
+            controller.markPatternsDirty();
         }
 
         if (node instanceof IItemStorageProvider) {
-            controller.getItemStorageCache().invalidate();
+            controller.markItemStorageDirty();
         }
 
         if (node instanceof IFluidStorageProvider) {
-            controller.getFluidStorageCache().invalidate();
+            controller.markFluidStorageDirty();
         }
 
         controller.getDataManager().sendParameterToWatchers(TileController.NODES);
@@ -171,6 +175,8 @@ public class NetworkNodeGraph implements INetworkNodeGraph {
 
         nodes.clear();
 
+        controller.markEnergyUsageDirty();
+
         for (INetworkNode node : oldNodes) {
             if (node.isConnected()) {
                 node.onDisconnected(controller);
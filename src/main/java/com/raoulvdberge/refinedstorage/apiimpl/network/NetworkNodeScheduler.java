@@ -0,0 +1,91 @@
+package com.raoulvdberge.refinedstorage.apiimpl.network;
+
+import com.raoulvdberge.refinedstorage.api.network.INetworkMaster;
+import com.raoulvdberge.refinedstorage.api.network.INetworkNode;
+import com.raoulvdberge.refinedstorage.tile.TileNode;
+
+import java.util.*;
+
+/**
+ * Updates the nodes of a network from the controller, within a time budget per tick.
+ * <p>
+ * Every round updates all nodes once. The nodes are grouped on type, and the types take turns, so one type of node
+ * that is slow to update can't take the whole budget. When the budget runs out, the rest of the round is carried over to the next tick.
+ * A new round only starts on a tick that didn't finish one, so a node is never updated twice in the same tick.
+ */
+public class NetworkNodeScheduler {
+    private INetworkMaster network;
+    private NetworkProfiler profiler;
+
+    // The nodes that weren't updated yet in the current round, per type
+    private Map<Class<?>, Deque<TileNode>> pending = new LinkedHashMap<>();
+
+    public NetworkNodeScheduler(INetworkMaster network, NetworkProfiler profiler) {
+        this.network = network;
+        this.profiler = profiler;
+    }
+
+    /**
+     * @param nodes  the nodes of the network, only used when a new round starts
+     * @param budget the time in nanoseconds that may be spent, 0 for no limit
+     */
+    public void update(List<INetworkNode> nodes, long budget) {
+        if (pending.isEmpty()) {
+            for (INetworkNode node : nodes) {
+                if (node instanceof TileNode) {
+                    pending.computeIfAbsent(node.getClass(), type -> new ArrayDeque<>()).add((TileNode) node);
+                }
+            }
+        }
+
+        long deadline = System.nanoTime() + budget;
+
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.keySet().iterator().next();
+
+            Deque<TileNode> queue = pending.remove(type);
+
+            TileNode node = queue.poll();
+
+            // Puts the type at the back, so the turns carry over to the next tick as well
+            if (!queue.isEmpty()) {
+                pending.put(type, queue);
+            }
+
+            // The node can be removed from the network or unloaded since the round started
+            if (!node.isInvalid() && node.getNetwork() == network && node.isActive()) {
+                long start = profiler.start();
+
+                node.updateNode();
+
+                if (profiler.isEnabled()) {
+                    profiler.stop("node." + type.getSimpleName(), start);
+                }
+            }
+
+            if (budget > 0 && System.nanoTime() > deadline) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the amount of nodes that still have to be updated in the current round
+     */
+    public int getPending() {
+        int amount = 0;
+
+        for (Deque<TileNode> queue : pending.values()) {
+            amount += queue.size();
+        }
+
+        return amount;
+    }
+
+    /**
+     * Drops the current round, for example when the network goes down.
+     */
+    public void clear() {
+        pending.clear();
+    }
+}
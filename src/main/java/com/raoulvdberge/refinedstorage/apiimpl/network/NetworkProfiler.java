@@ -0,0 +1,195 @@
+package com.raoulvdberge.refinedstorage.apiimpl.network;
+
+import java.util.*;
+
+/**
+ * Measures where the time of a network goes, per section, over the last {@link #WINDOW} ticks.
+ * <p>
+ * Nothing is measured while disabled, callers that have to build a section name should check {@link #isEnabled()} first.
+ * Sections can be nested, the time of a section doesn't include the time of the sections measured inside it, so the times add up.
+ */
+public class NetworkProfiler {
+    public static final int WINDOW = 100;
+
+    // The results are only rebuilt once a second, so they don't change on every request
+    private static final int RESULTS_INTERVAL = 20;
+
+    private boolean enabled;
+    // The time spent in nested sections, for every section that is being measured
+    private long[] nestedTime = new long[8];
+    private int depth;
+    private int tick;
+    private int ticksMeasured;
+    private Map<String, Section> sections = new LinkedHashMap<>();
+    private List<Result> results = Collections.emptyList();
+
+    private static class Section {
+        private long[] time = new long[WINDOW];
+        private int[] calls = new int[WINDOW];
+    }
+
+    public static class Result {
+        private String section;
+        private long timePerTick;
+        private float callsPerTick;
+
+        public Result(String section, long timePerTick, float callsPerTick) {
+            this.section = section;
+            this.timePerTick = timePerTick;
+            this.callsPerTick = callsPerTick;
+        }
+
+        public String getSection() {
+            return section;
+        }
+
+        /**
+         * @return the average time spent per tick, in nanoseconds
+         */
+        public long getTimePerTick() {
+            return timePerTick;
+        }
+
+        public float getCallsPerTick() {
+            return callsPerTick;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Result)) {
+                return false;
+            }
+
+            Result other = (Result) o;
+
+            return timePerTick == other.timePerTick && callsPerTick == other.callsPerTick && section.equals(other.section);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = section.hashCode();
+            result = 31 * result + (int) (timePerTick ^ (timePerTick >>> 32));
+            result = 31 * result + Float.floatToIntBits(callsPerTick);
+            return result;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+
+        sections.clear();
+        results = Collections.emptyList();
+        ticksMeasured = 0;
+        depth = 0;
+    }
+
+    /**
+     * @return the start of a measurement, to pass to {@link #stop(String, long)}
+     */
+    public long start() {
+        if (!enabled) {
+            return 0;
+        }
+
+        if (++depth == nestedTime.length) {
+            nestedTime = Arrays.copyOf(nestedTime, nestedTime.length * 2);
+        }
+
+        nestedTime[depth] = 0;
+
+        return System.nanoTime();
+    }
+
+    /**
+     * @param section the section that was measured
+     * @param start   the start of the measurement, from {@link #start()}
+     */
+    public void stop(String section, long start) {
+        if (!enabled) {
+            return;
+        }
+
+        long time = System.nanoTime() - start;
+
+        if (depth > 0) {
+            long nested = nestedTime[depth--];
+
+            nestedTime[depth] += time;
+
+            time -= nested;
+        }
+
+        Section measured = sections.get(section);
+
+        if (measured == null) {
+            measured = new Section();
+
+            sections.put(section, measured);
+        }
+
+        measured.time[tick] += time;
+        measured.calls[tick]++;
+    }
+
+    /**
+     * Moves on to the next tick, the oldest tick drops out of the window.
+     */
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+
+        // Sections that were left by an exception are never stopped
+        depth = 0;
+
+        tick = (tick + 1) % WINDOW;
+        ticksMeasured = Math.min(ticksMeasured + 1, WINDOW);
+
+        for (Section section : sections.values()) {
+            section.time[tick] = 0;
+            section.calls[tick] = 0;
+        }
+
+        if (ticksMeasured % RESULTS_INTERVAL == 0 || ticksMeasured == WINDOW && tick % RESULTS_INTERVAL == 0) {
+            results = createResults();
+        }
+    }
+
+    /**
+     * @return the results over the window, slowest section first
+     */
+    public List<Result> getResults() {
+        return results;
+    }
+
+    private List<Result> createResults() {
+        List<Result> newResults = new ArrayList<>();
+
+        for (Map.Entry<String, Section> entry : sections.entrySet()) {
+            long time = 0;
+            int calls = 0;
+
+            // The current tick is still being measured
+            for (int i = 0; i < WINDOW; ++i) {
+                if (i != tick) {
+                    time += entry.getValue().time[i];
+                    calls += entry.getValue().calls[i];
+                }
+            }
+
+            newResults.add(new Result(entry.getKey(), time / ticksMeasured, (float) calls / ticksMeasured));
+        }
+
+        newResults.sort((left, right) -> Long.compare(right.getTimePerTick(), left.getTimePerTick()));
+
+        return newResults;
+    }
+}
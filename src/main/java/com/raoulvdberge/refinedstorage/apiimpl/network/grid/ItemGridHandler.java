@@ -21,8 +21,8 @@ public class ItemGridHandler implements IItemGridHandler {
     }
 
     @Override
-    public void onExtract(int hash, int flags, EntityPlayerMP player) {
-        ItemStack item = network.getItemStorageCache().getList().get(hash);
+    public void onExtract(long id, int flags, EntityPlayerMP player) {
+        ItemStack item = network.getItemStorageCache().getList().get(id);
 
         if (item == null) {
             return;
@@ -119,8 +119,8 @@ public class ItemGridHandler implements IItemGridHandler {
     }
 
     @Override
-    public void onCraftingPreviewRequested(EntityPlayerMP player, int hash, int quantity) {
-        ItemStack stack = network.getItemStorageCache().getList().get(hash);
+    public void onCraftingPreviewRequested(EntityPlayerMP player, long id, int quantity) {
+        ItemStack stack = network.getItemStorageCache().getList().get(id);
 
         if (stack != null) {
             Thread calculationThread = new Thread(() -> {
@@ -128,7 +128,7 @@ public class ItemGridHandler implements IItemGridHandler {
 
                 task.calculate();
 
-                RS.INSTANCE.network.sendTo(new MessageGridCraftingPreviewResponse(task.getPreviewStacks(), hash, quantity), player);
+                RS.INSTANCE.network.sendTo(new MessageGridCraftingPreviewResponse(task.getPreviewStacks(), id, quantity), player);
             }, "RS crafting calculation");
 
             calculationThread.start();
@@ -136,12 +136,12 @@ public class ItemGridHandler implements IItemGridHandler {
     }
 
     @Override
-    public void onCraftingRequested(int hash, int quantity) {
+    public void onCraftingRequested(long id, int quantity) {
         if (quantity <= 0) {
             return;
         }
 
-        ItemStack stack = network.getItemStorageCache().getList().get(hash);
+        ItemStack stack = network.getItemStorageCache().getList().get(id);
 
         if (stack != null) {
             ICraftingTask task = new CraftingTask(network, stack, network.getPattern(stack), quantity);
@@ -0,0 +1,329 @@
+package com.raoulvdberge.refinedstorage.apiimpl.storage;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.world.World;
+import net.minecraft.world.storage.MapStorage;
+import net.minecraft.world.storage.WorldSavedData;
+import net.minecraftforge.common.DimensionManager;
+import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.fml.common.FMLLog;
+
+import javax.annotation.Nullable;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the contents of storage disks in the world, so the disk items only carry an id and the amount stored.
+ * Disks that still have their contents in their own NBT are moved over the first time a storage is created for them.
+ * <p>
+ * Every id is used by one storage at a time. A disk that is copied, for example with pick block in creative, would otherwise
+ * end up with two storages writing to the same tag, so the copy gets a new id with a copy of the contents.
+ * <p>
+ * The contents of a disk that is disassembled are removed right away. Disks that are destroyed in other ways, like copies
+ * that are thrown in lava, leave their contents behind. Every disk keeps the time it was last seen in a storage or in the
+ * inventory of a player, so operators can remove disks that were not seen for a while with the rsdisks command.
+ * Disks that are kept in a chest are not seen, so pick a period that is longer than anyone keeps a disk in a chest.
+ */
+public class StorageDiskData extends WorldSavedData {
+    private static final String NAME = "refinedstorage_disks";
+
+    private static final String NBT_DISKS = "Disks";
+    private static final String NBT_DISK_ID = "Id";
+    private static final String NBT_DISK_DATA = "Data";
+    private static final String NBT_DISK_LAST_SEEN = "LastSeen";
+    private static final String NBT_STORED = "Stored";
+
+    private static final long SEEN_SAVE_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+    private Map<UUID, NBTTagCompound> disks = new HashMap<>();
+    // Storages that changed since the last save, they are written to their tag right before this data is saved
+    private Map<UUID, Runnable> pendingWrites = new HashMap<>();
+    // The storage that uses an id, weak so a storage that is never released doesn't keep its id forever
+    private Map<UUID, WeakReference<Object>> owners = new HashMap<>();
+    // When a disk was last used by a storage or carried by a player, in milliseconds since the epoch
+    private Map<UUID, Long> lastSeen = new HashMap<>();
+
+    public StorageDiskData(String name) {
+        super(name);
+    }
+
+    /**
+     * Gets the tag of a disk for a storage, the disk gets an id if it doesn't have one yet,
+     * or a new id if its id is used by another storage.
+     *
+     * @param disk       The disk, its id is read after this call
+     * @param owner      The storage that will use the tag, until {@link StorageDiskData#release(UUID, Object)} is called
+     * @param defaultTag Creates the tag for disks that have an id but no data, for example when the disk was taken from another world
+     * @return The tag that holds the contents of the disk
+     */
+    public NBTTagCompound acquire(ItemStack disk, Object owner, Supplier<NBTTagCompound> defaultTag) {
+        UUID id = getId(disk);
+
+        if (id == null) {
+            id = UUID.randomUUID();
+
+            NBTTagCompound tag = disk.getTagCompound();
+
+            disk.setTagCompound(createSummary(id, tag.getInteger(NBT_STORED)));
+
+            disks.put(id, tag);
+            owners.put(id, new WeakReference<>(owner));
+            see(id);
+
+            markDirty();
+
+            return tag;
+        }
+
+        // A storage for this disk that wasn't saved yet, for example from a chunk that was unloaded
+        Runnable pendingWrite = pendingWrites.remove(id);
+
+        if (pendingWrite != null) {
+            pendingWrite.run();
+        }
+
+        NBTTagCompound tag = disks.get(id);
+
+        if (tag == null) {
+            FMLLog.warning("The contents of storage disk %s are not in this world, it had %d stored, it continues as an empty disk", id, disk.getTagCompound().getInteger(NBT_STORED));
+
+            tag = defaultTag.get();
+
+            disks.put(id, tag);
+
+            markDirty();
+        }
+
+        WeakReference<Object> currentOwner = owners.get(id);
+
+        if (currentOwner != null && currentOwner.get() != null && currentOwner.get() != owner) {
+            UUID copyId = UUID.randomUUID();
+
+            FMLLog.info("Storage disk %s is used by two storages, the copy continues as storage disk %s", id, copyId);
+
+            tag = tag.copy();
+            id = copyId;
+
+            disk.getTagCompound().setUniqueId(NBT_DISK_ID, id);
+
+            disks.put(id, tag);
+
+            markDirty();
+        }
+
+        owners.put(id, new WeakReference<>(owner));
+        see(id);
+
+        return tag;
+    }
+
+    /**
+     * Called when a storage no longer uses a disk, for example when the disk is taken out or the chunk is unloaded.
+     *
+     * @param id    The id of the disk
+     * @param owner The storage that used the disk
+     */
+    public void release(UUID id, Object owner) {
+        WeakReference<Object> currentOwner = owners.get(id);
+
+        if (currentOwner != null && (currentOwner.get() == owner || currentOwner.get() == null)) {
+            owners.remove(id);
+        }
+    }
+
+    /**
+     * Marks the contents of a disk as changed.
+     *
+     * @param id     The id of the disk
+     * @param writer Writes the contents to the tag returned by {@link StorageDiskData#acquire(ItemStack, Object, Supplier)}, called before this data is saved
+     */
+    public void markDirty(UUID id, Runnable writer) {
+        pendingWrites.put(id, writer);
+        lastSeen.put(id, System.currentTimeMillis());
+
+        markDirty();
+    }
+
+    /**
+     * Marks a disk as seen, for disks that are not in a storage, like the ones in the inventory of a player.
+     *
+     * @param id The id of the disk
+     */
+    public void see(UUID id) {
+        if (!disks.containsKey(id)) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+
+        // Saving all disks for every disk that is seen is too much, but the time has to be saved now and then or a disk that never changes looks lost
+        if (lastSeen.getOrDefault(id, 0L) < now - SEEN_SAVE_INTERVAL) {
+            markDirty();
+        }
+
+        lastSeen.put(id, now);
+    }
+
+    /**
+     * Removes the contents of a disk that no longer exists, for example because it was disassembled.
+     * Nothing is removed while a storage uses the id, that storage has a copy of the disk that still exists.
+     *
+     * @param id The id of the disk
+     * @return Whether the contents were removed
+     */
+    public boolean remove(UUID id) {
+        if (isUsed(id) || disks.remove(id) == null) {
+            return false;
+        }
+
+        pendingWrites.remove(id);
+        owners.remove(id);
+        lastSeen.remove(id);
+
+        markDirty();
+
+        return true;
+    }
+
+    /**
+     * Counts the disks that were not seen since the given time and are not used by a storage, see {@link StorageDiskData#prune(long)}.
+     *
+     * @param time The time in milliseconds since the epoch
+     * @return The amount of disks
+     */
+    public int countUnseenSince(long time) {
+        return (int) disks.keySet().stream().filter(id -> isUnseenSince(id, time)).count();
+    }
+
+    /**
+     * Removes the contents of the disks that were not seen since the given time and are not used by a storage.
+     * Only call this on request of an operator: a disk that was not seen can still exist, in a chest or in a chunk that isn't loaded.
+     *
+     * @param time The time in milliseconds since the epoch
+     * @return The amount of disks that were removed
+     */
+    public int prune(long time) {
+        List<UUID> unseen = disks.keySet().stream().filter(id -> isUnseenSince(id, time)).collect(Collectors.toList());
+
+        unseen.forEach(this::remove);
+
+        return unseen.size();
+    }
+
+    /**
+     * @return The amount of disks that have their contents in this data
+     */
+    public int getDiskCount() {
+        return disks.size();
+    }
+
+    private boolean isUsed(UUID id) {
+        WeakReference<Object> owner = owners.get(id);
+
+        return owner != null && owner.get() != null;
+    }
+
+    private boolean isUnseenSince(UUID id, long time) {
+        return !isUsed(id) && lastSeen.getOrDefault(id, 0L) < time;
+    }
+
+    @Override
+    public void readFromNBT(NBTTagCompound tag) {
+        NBTTagList list = tag.getTagList(NBT_DISKS, Constants.NBT.TAG_COMPOUND);
+
+        for (int i = 0; i < list.tagCount(); ++i) {
+            NBTTagCompound diskTag = list.getCompoundTagAt(i);
+
+            UUID id = diskTag.getUniqueId(NBT_DISK_ID);
+
+            disks.put(id, diskTag.getCompoundTag(NBT_DISK_DATA));
+
+            // Disks that were saved before the time was kept count as seen now
+            lastSeen.put(id, diskTag.hasKey(NBT_DISK_LAST_SEEN) ? diskTag.getLong(NBT_DISK_LAST_SEEN) : System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public NBTTagCompound writeToNBT(NBTTagCompound tag) {
+        pendingWrites.values().forEach(Runnable::run);
+        pendingWrites.clear();
+
+        long now = System.currentTimeMillis();
+
+        // Disks that sit unchanged in a loaded drive are still around
+        owners.keySet().stream().filter(this::isUsed).forEach(id -> lastSeen.put(id, now));
+
+        NBTTagList list = new NBTTagList();
+
+        for (Map.Entry<UUID, NBTTagCompound> disk : disks.entrySet()) {
+            NBTTagCompound diskTag = new NBTTagCompound();
+
+            diskTag.setUniqueId(NBT_DISK_ID, disk.getKey());
+            diskTag.setTag(NBT_DISK_DATA, disk.getValue());
+            diskTag.setLong(NBT_DISK_LAST_SEEN, lastSeen.getOrDefault(disk.getKey(), now));
+
+            list.appendTag(diskTag);
+        }
+
+        tag.setTag(NBT_DISKS, list);
+
+        return tag;
+    }
+
+    /**
+     * @param world A world of the server, the dimensions of a server share their saved data, or null for the overworld
+     * @return The disk data of the server, shared by all dimensions
+     */
+    public static StorageDiskData get(@Nullable World world) {
+        MapStorage storage = (world != null ? world : DimensionManager.getWorld(0)).getMapStorage();
+
+        StorageDiskData data = (StorageDiskData) storage.getOrLoadData(StorageDiskData.class, NAME);
+
+        if (data == null) {
+            data = new StorageDiskData(NAME);
+
+            storage.setData(NAME, data);
+        }
+
+        return data;
+    }
+
+    @Nullable
+    public static UUID getId(ItemStack disk) {
+        return hasId(disk) ? disk.getTagCompound().getUniqueId(NBT_DISK_ID) : null;
+    }
+
+    public static boolean hasId(ItemStack disk) {
+        return disk.hasTagCompound() && disk.getTagCompound().hasUniqueId(NBT_DISK_ID);
+    }
+
+    /**
+     * Updates the amount stored that is shown on the disk, if the disk still has the given id.
+     *
+     * @param disk   The disk, null if it's gone
+     * @param id     The id of the disk the amount belongs to
+     * @param stored The amount stored
+     */
+    public static void setStored(@Nullable ItemStack disk, UUID id, int stored) {
+        if (disk != null && id.equals(getId(disk))) {
+            disk.getTagCompound().setInteger(NBT_STORED, stored);
+        }
+    }
+
+    private static NBTTagCompound createSummary(UUID id, int stored) {
+        NBTTagCompound tag = new NBTTagCompound();
+
+        tag.setUniqueId(NBT_DISK_ID, id);
+        tag.setInteger(NBT_STORED, stored);
+
+        return tag;
+    }
+}
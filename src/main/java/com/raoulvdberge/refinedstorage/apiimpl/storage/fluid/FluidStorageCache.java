@@ -1,5 +1,6 @@
 package com.raoulvdberge.refinedstorage.apiimpl.storage.fluid;
 
+import com.raoulvdberge.refinedstorage.RSUtils;
 import com.raoulvdberge.refinedstorage.api.network.INetworkMaster;
 import com.raoulvdberge.refinedstorage.api.storage.AccessType;
 import com.raoulvdberge.refinedstorage.api.storage.fluid.IFluidStorage;
@@ -7,60 +8,187 @@ import com.raoulvdberge.refinedstorage.api.storage.fluid.IFluidStorageCache;
 import com.raoulvdberge.refinedstorage.api.storage.fluid.IFluidStorageProvider;
 import com.raoulvdberge.refinedstorage.api.util.IFluidStackList;
 import com.raoulvdberge.refinedstorage.apiimpl.API;
+import com.raoulvdberge.refinedstorage.apiimpl.network.NetworkMetrics;
 import net.minecraftforge.fluids.FluidStack;
+import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 public class FluidStorageCache implements IFluidStorageCache {
     private INetworkMaster network;
+    private NetworkMetrics metrics;
     private List<IFluidStorage> storages = new ArrayList<>();
+    // What every storage holds, so storages can be added, removed or refreshed without rebuilding the whole list
+    private Map<IFluidStorage, IFluidStackList> contributions = new HashMap<>();
+    // The storages that are not write only, only these show up in the list
+    private Set<IFluidStorage> listed = new HashSet<>();
     private IFluidStackList list = API.instance().createFluidStackList();
 
-    public FluidStorageCache(INetworkMaster network) {
+    public FluidStorageCache(INetworkMaster network, NetworkMetrics metrics) {
         this.network = network;
+        this.metrics = metrics;
     }
 
     @Override
     public synchronized void invalidate() {
-        storages.clear();
+        long start = System.nanoTime();
+
+        List<IFluidStorage> newStorages = new ArrayList<>();
 
         network.getNodeGraph().all().stream()
             .filter(node -> node.canUpdate() && node instanceof IFluidStorageProvider)
-            .forEach(node -> ((IFluidStorageProvider) node).addFluidStorages(storages));
+            .forEach(node -> ((IFluidStorageProvider) node).addFluidStorages(newStorages));
+
+        Set<IFluidStorage> connected = new HashSet<>(newStorages);
+
+        List<Pair<FluidStack, Integer>> deltas = new ArrayList<>();
+
+        Iterator<Map.Entry<IFluidStorage, IFluidStackList>> it = contributions.entrySet().iterator();
+
+        while (it.hasNext()) {
+            Map.Entry<IFluidStorage, IFluidStackList> contribution = it.next();
+
+            if (!connected.contains(contribution.getKey())) {
+                if (listed.remove(contribution.getKey())) {
+                    for (FluidStack stack : contribution.getValue().getStacks()) {
+                        removeFromList(stack, stack.amount, deltas);
+                    }
+                }
+
+                it.remove();
+            }
+        }
+
+        for (IFluidStorage storage : newStorages) {
+            IFluidStackList contribution = contributions.computeIfAbsent(storage, this::createContribution);
+
+            boolean shouldBeListed = storage.getAccessType() != AccessType.WRITE;
+
+            if (shouldBeListed && listed.add(storage)) {
+                for (FluidStack stack : contribution.getStacks()) {
+                    addToList(stack, stack.amount, deltas);
+                }
+            } else if (!shouldBeListed && listed.remove(storage)) {
+                for (FluidStack stack : contribution.getStacks()) {
+                    removeFromList(stack, stack.amount, deltas);
+                }
+            }
+        }
+
+        storages.clear();
+        storages.addAll(newStorages);
+
+        RSUtils.sortStorages(storages);
+
+        if (!deltas.isEmpty()) {
+            network.sendFluidStorageDeltaToClient(deltas);
+        }
+
+        metrics.onFluidStorageInvalidated(System.nanoTime() - start);
+    }
+
+    @Override
+    public synchronized void invalidate(@Nonnull IFluidStorage storage) {
+        IFluidStackList oldContribution = contributions.get(storage);
+
+        if (oldContribution == null) {
+            return;
+        }
+
+        IFluidStackList newContribution = createContribution(storage);
+
+        metrics.onStorageRefreshed();
 
-        list.clear();
+        contributions.put(storage, newContribution);
 
-        for (IFluidStorage storage : storages) {
-            if (storage.getAccessType() == AccessType.WRITE) {
-                continue;
+        if (!listed.contains(storage)) {
+            return;
+        }
+
+        List<Pair<FluidStack, Integer>> deltas = new ArrayList<>();
+
+        for (FluidStack oldStack : oldContribution.getStacks()) {
+            FluidStack newStack = newContribution.get(oldStack);
+
+            int delta = (newStack == null ? 0 : newStack.amount) - oldStack.amount;
+
+            if (delta < 0) {
+                removeFromList(oldStack, -delta, deltas);
+            } else if (delta > 0) {
+                addToList(oldStack, delta, deltas);
             }
+        }
 
-            for (FluidStack stack : storage.getStacks()) {
-                add(stack, true);
+        for (FluidStack newStack : newContribution.getStacks()) {
+            if (oldContribution.get(newStack) == null) {
+                addToList(newStack, newStack.amount, deltas);
             }
         }
 
-        network.sendFluidStorageToClient();
+        if (!deltas.isEmpty()) {
+            network.sendFluidStorageDeltaToClient(deltas);
+        }
     }
 
     @Override
-    public synchronized void add(@Nonnull FluidStack stack, boolean rebuilding) {
-        list.add(stack);
+    public synchronized void add(@Nonnull IFluidStorage storage, @Nonnull FluidStack stack) {
+        IFluidStackList contribution = contributions.get(storage);
+
+        if (contribution == null) {
+            return;
+        }
+
+        contribution.add(stack);
+
+        if (listed.contains(storage)) {
+            list.add(stack);
 
-        if (!rebuilding) {
             network.sendFluidStorageDeltaToClient(stack, stack.amount);
         }
     }
 
     @Override
-    public synchronized void remove(@Nonnull FluidStack stack) {
-        if (list.remove(stack, true)) {
+    public synchronized void remove(@Nonnull IFluidStorage storage, @Nonnull FluidStack stack) {
+        IFluidStackList contribution = contributions.get(storage);
+
+        if (contribution == null) {
+            return;
+        }
+
+        contribution.remove(stack, true);
+
+        if (listed.contains(storage) && list.remove(stack, true)) {
             network.sendFluidStorageDeltaToClient(stack, -stack.amount);
         }
     }
 
+    private IFluidStackList createContribution(IFluidStorage storage) {
+        IFluidStackList contribution = API.instance().createFluidStackList();
+
+        for (FluidStack stack : storage.getStacks()) {
+            if (stack.amount > 0) {
+                contribution.add(stack);
+            }
+        }
+
+        return contribution;
+    }
+
+    private void addToList(FluidStack stack, int size, List<Pair<FluidStack, Integer>> deltas) {
+        FluidStack added = RSUtils.copyStackWithSize(stack, size);
+
+        list.add(added);
+
+        deltas.add(Pair.of(added, size));
+    }
+
+    private void removeFromList(FluidStack stack, int size, List<Pair<FluidStack, Integer>> deltas) {
+        if (list.remove(stack, size, true)) {
+            deltas.add(Pair.of(RSUtils.copyStackWithSize(stack, size), -size));
+        }
+    }
+
     @Override
     public IFluidStackList getList() {
         return list;
@@ -2,16 +2,22 @@ package com.raoulvdberge.refinedstorage.apiimpl.storage.fluid;
 
 import com.raoulvdberge.refinedstorage.RSUtils;
 import com.raoulvdberge.refinedstorage.api.storage.fluid.IFluidStorage;
+import com.raoulvdberge.refinedstorage.api.util.IComparer;
 import com.raoulvdberge.refinedstorage.apiimpl.API;
+import com.raoulvdberge.refinedstorage.apiimpl.storage.StorageDiskData;
+import com.raoulvdberge.refinedstorage.apiimpl.util.FluidStackKey;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.items.IItemHandler;
 
 import javax.annotation.Nullable;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * A implementation of {@link IFluidStorage} that stores storage fluids in NBT.
@@ -31,8 +37,22 @@ public abstract class FluidStorageNBT implements IFluidStorage {
     private NBTTagCompound tag;
     private int capacity;
     private TileEntity tile;
-
-    private List<FluidStack> stacks = new ArrayList<>();
+    // Set when the contents are kept in StorageDiskData instead of the tag of the disk itself
+    @Nullable
+    private IItemHandler disks;
+    private int diskSlot;
+    @Nullable
+    private UUID diskId;
+    @Nullable
+    private StorageDiskData diskData;
+
+    private Map<FluidStackKey, FluidStack> stacks = new LinkedHashMap<>();
+    // Only written to the tag in writeToNBT()
+    private int stored;
+    // Whether the stacks changed since the last writeToNBT(), the tile only has to be marked dirty once until then
+    private boolean dirty;
+    // The stacks are only read from the tag once they are needed, see load()
+    private boolean loaded;
 
     /**
      * @param tag      The NBT tag we are reading from and writing the amount stored to, has to be initialized with {@link FluidStorageNBT#createNBT()} if it doesn't exist yet
@@ -43,123 +63,197 @@ public abstract class FluidStorageNBT implements IFluidStorage {
         this.tag = tag;
         this.capacity = capacity;
         this.tile = tile;
+        this.stored = getStoredFromNBT(tag);
+    }
+
+    /**
+     * @param disks    The inventory of the storage disk, the fluids on it are kept in {@link StorageDiskData}
+     * @param slot     The slot of the storage disk
+     * @param capacity The capacity of this storage, -1 for infinite capacity
+     * @param tile     A {@link TileEntity} that the disk is in, will be marked dirty when the storage changes
+     */
+    public FluidStorageNBT(IItemHandler disks, int slot, int capacity, @Nullable TileEntity tile) {
+        ItemStack disk = disks.getStackInSlot(slot);
 
-        readFromNBT();
+        // The tile has no world yet while it's read from a chunk, the disk data is the same for every world anyway
+        this.diskData = StorageDiskData.get(tile != null ? tile.getWorld() : null);
+        this.tag = diskData.acquire(disk, this, FluidStorageNBT::createNBT);
+        this.capacity = capacity;
+        this.tile = tile;
+        this.stored = getStoredFromNBT(tag);
+        this.disks = disks;
+        this.diskSlot = slot;
+        this.diskId = StorageDiskData.getId(disk);
     }
 
+    /**
+     * Called when this storage is no longer used for its disk, so another storage can use the disk.
+     */
+    public void releaseDisk() {
+        if (diskId != null) {
+            diskData.release(diskId, this);
+        }
+    }
+
+    private void load() {
+        if (!loaded) {
+            readFromNBT();
+        }
+    }
+
+    /**
+     * Reads the stacks from the tag, the stacks that are in this storage are replaced.
+     */
     public void readFromNBT() {
+        loaded = true;
+
+        stacks.clear();
+
         NBTTagList list = (NBTTagList) tag.getTag(NBT_FLUIDS);
 
         for (int i = 0; i < list.tagCount(); ++i) {
             FluidStack stack = FluidStack.loadFluidStackFromNBT(list.getCompoundTagAt(i));
 
             if (stack != null) {
-                stacks.add(stack);
+                FluidStackKey key = new FluidStackKey(stack);
+                FluidStack otherStack = stacks.get(key);
+
+                if (otherStack != null) {
+                    otherStack.amount += stack.amount;
+                } else {
+                    stacks.put(key, stack);
+                }
             }
         }
+
+        stored = getStoredFromNBT(this.tag);
     }
 
     /**
-     * Writes the items to the NBT tag.
+     * Writes the fluids to the NBT tag, if nothing changed since the last write the tag is left as is.
      */
     public void writeToNBT() {
+        if (!dirty) {
+            return;
+        }
+
+        dirty = false;
+
         NBTTagList list = new NBTTagList();
 
-        for (FluidStack stack : stacks) {
+        for (FluidStack stack : stacks.values()) {
             list.appendTag(stack.writeToNBT(new NBTTagCompound()));
         }
 
         tag.setTag(NBT_FLUIDS, list);
+        tag.setInteger(NBT_STORED, stored);
         tag.setInteger(NBT_PROTOCOL, PROTOCOL);
+
+        if (diskId != null) {
+            // The disk is read from its slot, the stack we were created with can be replaced in the meantime
+            StorageDiskData.setStored(disks.getStackInSlot(diskSlot), diskId, stored);
+        }
     }
 
     @Override
-    public List<FluidStack> getStacks() {
-        return stacks;
+    public Collection<FluidStack> getStacks() {
+        load();
+
+        return stacks.values();
     }
 
     @Override
     public synchronized FluidStack insertFluid(FluidStack stack, int size, boolean simulate) {
-        for (FluidStack otherStack : stacks) {
-            if (otherStack.isFluidEqual(stack)) {
-                if (getCapacity() != -1 && getStored() + size > getCapacity()) {
-                    int remainingSpace = getCapacity() - getStored();
+        if (getCapacity() != -1 && stored + size > getCapacity()) {
+            int remainingSpace = getCapacity() - stored;
 
-                    if (remainingSpace <= 0) {
-                        return RSUtils.copyStackWithSize(stack, size);
-                    }
+            if (remainingSpace <= 0) {
+                return RSUtils.copyStackWithSize(stack, size);
+            }
 
-                    if (!simulate) {
-                        tag.setInteger(NBT_STORED, getStored() + remainingSpace);
+            if (!simulate) {
+                insert(stack, remainingSpace);
+            }
 
-                        otherStack.amount += remainingSpace;
+            return RSUtils.copyStackWithSize(stack, size - remainingSpace);
+        } else {
+            if (!simulate) {
+                insert(stack, size);
+            }
 
-                        onStorageChanged();
-                    }
+            return null;
+        }
+    }
 
-                    return RSUtils.copyStackWithSize(otherStack, size - remainingSpace);
-                } else {
-                    if (!simulate) {
-                        tag.setInteger(NBT_STORED, getStored() + size);
+    private void insert(FluidStack stack, int size) {
+        load();
 
-                        otherStack.amount += size;
+        FluidStack otherStack = stacks.get(new FluidStackKey(stack));
 
-                        onStorageChanged();
-                    }
+        if (otherStack != null) {
+            otherStack.amount += size;
+        } else {
+            FluidStack newStack = RSUtils.copyStackWithSize(stack, size);
 
-                    return null;
-                }
-            }
+            stacks.put(new FluidStackKey(newStack), newStack);
         }
 
-        if (getCapacity() != -1 && getStored() + size > getCapacity()) {
-            int remainingSpace = getCapacity() - getStored();
+        stored += size;
 
-            if (remainingSpace <= 0) {
-                return RSUtils.copyStackWithSize(stack, size);
-            }
+        onStorageChanged();
+    }
 
-            if (!simulate) {
-                tag.setInteger(NBT_STORED, getStored() + remainingSpace);
+    @Override
+    public synchronized FluidStack extractFluid(FluidStack stack, int size, int flags) {
+        load();
 
-                stacks.add(RSUtils.copyStackWithSize(stack, remainingSpace));
+        FluidStack otherStack = get(stack, flags);
 
-                onStorageChanged();
-            }
+        if (otherStack == null) {
+            return null;
+        }
 
-            return RSUtils.copyStackWithSize(stack, size - remainingSpace);
+        if (size > otherStack.amount) {
+            size = otherStack.amount;
+        }
+
+        if (otherStack.amount - size == 0) {
+            stacks.remove(new FluidStackKey(otherStack));
         } else {
-            if (!simulate) {
-                tag.setInteger(NBT_STORED, getStored() + size);
+            otherStack.amount -= size;
+        }
 
-                stacks.add(RSUtils.copyStackWithSize(stack, size));
+        stored -= size;
 
-                onStorageChanged();
-            }
+        onStorageChanged();
 
-            return null;
-        }
+        return RSUtils.copyStackWithSize(otherStack, size);
     }
 
-    @Override
-    public synchronized FluidStack extractFluid(FluidStack stack, int size, int flags) {
-        for (FluidStack otherStack : stacks) {
-            if (API.instance().getComparer().isEqual(otherStack, stack, flags)) {
-                if (size > otherStack.amount) {
-                    size = otherStack.amount;
-                }
+    @Nullable
+    private FluidStack get(FluidStack stack, int flags) {
+        if ((flags & IComparer.COMPARE_NBT) == IComparer.COMPARE_NBT) {
+            // Only the stack with the same key can match, or the stack without a tag as that one matches any tag
+            FluidStack otherStack = stacks.get(new FluidStackKey(stack));
 
-                if (otherStack.amount - size == 0) {
-                    stacks.remove(otherStack);
-                } else {
-                    otherStack.amount -= size;
-                }
+            if (otherStack != null && API.instance().getComparer().isEqual(otherStack, stack, flags)) {
+                return otherStack;
+            }
 
-                tag.setInteger(NBT_STORED, getStored() - size);
+            if (stack.tag != null) {
+                otherStack = stacks.get(new FluidStackKey(stack.getFluid(), null));
 
-                onStorageChanged();
+                if (otherStack != null && API.instance().getComparer().isEqual(otherStack, stack, flags)) {
+                    return otherStack;
+                }
+            }
+
+            return null;
+        }
 
-                return RSUtils.copyStackWithSize(otherStack, size);
+        for (FluidStack otherStack : stacks.values()) {
+            if (API.instance().getComparer().isEqual(otherStack, stack, flags)) {
+                return otherStack;
             }
         }
 
@@ -167,14 +261,22 @@ public abstract class FluidStorageNBT implements IFluidStorage {
     }
 
     public void onStorageChanged() {
-        if (tile != null) {
-            tile.markDirty();
+        if (!dirty) {
+            dirty = true;
+
+            if (tile != null) {
+                tile.markDirty();
+            }
+
+            if (diskId != null) {
+                diskData.markDirty(diskId, this::writeToNBT);
+            }
         }
     }
 
     @Override
     public int getStored() {
-        return getStoredFromNBT(tag);
+        return stored;
     }
 
     public int getCapacity() {
@@ -203,7 +305,7 @@ public abstract class FluidStorageNBT implements IFluidStorage {
     }
 
     public static boolean isValid(ItemStack stack) {
-        return stack.hasTagCompound() && stack.getTagCompound().hasKey(NBT_FLUIDS) && stack.getTagCompound().hasKey(NBT_STORED);
+        return stack.hasTagCompound() && (stack.getTagCompound().hasKey(NBT_FLUIDS) || StorageDiskData.hasId(stack)) && stack.getTagCompound().hasKey(NBT_STORED);
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.raoulvdberge.refinedstorage.apiimpl.storage.item;
 
+import com.raoulvdberge.refinedstorage.RSUtils;
 import com.raoulvdberge.refinedstorage.api.autocrafting.ICraftingPattern;
 import com.raoulvdberge.refinedstorage.api.network.INetworkMaster;
 import com.raoulvdberge.refinedstorage.api.storage.AccessType;
@@ -8,66 +9,374 @@ import com.raoulvdberge.refinedstorage.api.storage.item.IItemStorageCache;
 import com.raoulvdberge.refinedstorage.api.storage.item.IItemStorageProvider;
 import com.raoulvdberge.refinedstorage.api.util.IItemStackList;
 import com.raoulvdberge.refinedstorage.apiimpl.API;
+import com.raoulvdberge.refinedstorage.apiimpl.network.NetworkMetrics;
+import com.raoulvdberge.refinedstorage.apiimpl.util.ItemStackCounts;
+import com.raoulvdberge.refinedstorage.apiimpl.util.ItemStackKey;
 import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.ItemHandlerHelper;
+import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 public class ItemStorageCache implements IItemStorageCache {
     private INetworkMaster network;
+    private NetworkMetrics metrics;
     private List<IItemStorage> storages = new ArrayList<>();
+    // What every storage holds, so storages can be added, removed or refreshed without rebuilding the whole list
+    private Map<IItemStorage, ItemStackCounts> contributions = new HashMap<>();
+    // The storages that are not write only, only these show up in the list
+    private Set<IItemStorage> listed = new HashSet<>();
+    // The storages that hold a given item keyed by interned keys, and the position of every storage in the priority order
+    private Map<ItemStackKey, Set<IItemStorage>> holders = new HashMap<>();
+    private Map<IItemStorage, Integer> positions = new HashMap<>();
+    // The insertion order of items that are held somewhere, dropped when the storages or the holders of the item change
+    private Map<ItemStackKey, List<IItemStorage>> insertionOrders = new HashMap<>();
+    private Set<ItemStackKey> patternOutputs = new HashSet<>();
     private IItemStackList list = API.instance().createItemStackList();
+    private volatile long version;
+    private IItemStackList snapshot;
+    private long snapshotVersion = -1;
 
-    public ItemStorageCache(INetworkMaster network) {
+    public ItemStorageCache(INetworkMaster network, NetworkMetrics metrics) {
         this.network = network;
+        this.metrics = metrics;
     }
 
     @Override
     public synchronized void invalidate() {
-        storages.clear();
+        long start = System.nanoTime();
+
+        List<IItemStorage> newStorages = new ArrayList<>();
 
         network.getNodeGraph().all().stream()
             .filter(node -> node.canUpdate() && node instanceof IItemStorageProvider)
-            .forEach(node -> ((IItemStorageProvider) node).addItemStorages(storages));
+            .forEach(node -> ((IItemStorageProvider) node).addItemStorages(newStorages));
+
+        Set<IItemStorage> connected = new HashSet<>(newStorages);
+
+        List<Pair<ItemStack, Integer>> deltas = new ArrayList<>();
+
+        Iterator<Map.Entry<IItemStorage, ItemStackCounts>> it = contributions.entrySet().iterator();
 
-        list.clear();
+        while (it.hasNext()) {
+            Map.Entry<IItemStorage, ItemStackCounts> contribution = it.next();
 
-        for (IItemStorage storage : storages) {
-            if (storage.getAccessType() == AccessType.WRITE) {
-                continue;
+            IItemStorage storage = contribution.getKey();
+
+            if (!connected.contains(storage)) {
+                contribution.getValue().forEach((key, count) -> removeHolder(storage, key));
+
+                if (listed.remove(storage)) {
+                    contribution.getValue().forEach((key, count) -> removeFromList(key, count, deltas));
+                }
+
+                it.remove();
             }
+        }
+
+        for (IItemStorage storage : newStorages) {
+            ItemStackCounts contribution = contributions.get(storage);
 
-            for (ItemStack stack : storage.getStacks()) {
-                add(stack, true);
+            if (contribution == null) {
+                contribution = createContribution(storage);
+
+                contribution.forEach((key, count) -> addHolder(storage, key));
+
+                contributions.put(storage, contribution);
+            }
+
+            boolean shouldBeListed = storage.getAccessType() != AccessType.WRITE;
+
+            if (shouldBeListed && listed.add(storage)) {
+                contribution.forEach((key, count) -> addToList(key, count, deltas));
+            } else if (!shouldBeListed && listed.remove(storage)) {
+                contribution.forEach((key, count) -> removeFromList(key, count, deltas));
             }
         }
 
+        storages.clear();
+        storages.addAll(newStorages);
+
+        RSUtils.sortStorages(storages);
+
+        positions.clear();
+        insertionOrders.clear();
+
+        for (int i = 0; i < storages.size(); ++i) {
+            positions.put(storages.get(i), i);
+        }
+
+        Set<ItemStackKey> newPatternOutputs = new HashSet<>();
+
         for (ICraftingPattern pattern : network.getPatterns()) {
             for (ItemStack output : pattern.getOutputs()) {
-                ItemStack patternStack = output.copy();
-                patternStack.stackSize = 0;
-                add(patternStack, true);
+                newPatternOutputs.add(new ItemStackKey(output));
+            }
+        }
+
+        if (!newPatternOutputs.equals(patternOutputs)) {
+            patternOutputs = newPatternOutputs;
+
+            // Drops the empty stacks of patterns that are gone, the craftable state of other stacks changes as well so send everything
+            list.clean();
+
+            version++;
+
+            for (ICraftingPattern pattern : network.getPatterns()) {
+                for (ItemStack output : pattern.getOutputs()) {
+                    list.add(ItemHandlerHelper.copyStackWithSize(output, 0));
+                }
             }
+
+            network.sendItemStorageToClient();
+        } else if (!deltas.isEmpty()) {
+            network.sendItemStorageDeltaToClient(deltas);
         }
 
-        network.sendItemStorageToClient();
+        list.releaseIds();
+
+        metrics.onItemStorageInvalidated(System.nanoTime() - start);
     }
 
     @Override
-    public synchronized void add(@Nonnull ItemStack stack, boolean rebuilding) {
-        list.add(stack);
+    public synchronized void invalidate(@Nonnull IItemStorage storage) {
+        ItemStackCounts oldContribution = contributions.get(storage);
+
+        if (oldContribution == null) {
+            return;
+        }
+
+        ItemStackCounts newContribution = createContribution(storage);
+
+        metrics.onStorageRefreshed();
+
+        boolean isListed = listed.contains(storage);
+
+        List<Pair<ItemStack, Integer>> deltas = new ArrayList<>();
+
+        oldContribution.forEach((key, oldCount) -> {
+            int newCount = newContribution.get(key);
+
+            if (newCount == 0) {
+                removeHolder(storage, key);
+            }
+
+            int delta = newCount - oldCount;
+
+            if (isListed && delta < 0) {
+                removeFromList(key, -delta, deltas);
+            } else if (isListed && delta > 0) {
+                addToList(key, delta, deltas);
+            }
+        });
+
+        newContribution.forEach((key, newCount) -> {
+            if (oldContribution.get(key) == 0) {
+                addHolder(storage, key);
+
+                if (isListed) {
+                    addToList(key, newCount, deltas);
+                }
+            }
+        });
+
+        contributions.put(storage, newContribution);
+
+        if (!deltas.isEmpty()) {
+            network.sendItemStorageDeltaToClient(deltas);
+        }
+
+        list.releaseIds();
+    }
+
+    @Override
+    public synchronized void add(@Nonnull IItemStorage storage, @Nonnull ItemStack stack) {
+        ItemStackCounts contribution = contributions.get(storage);
+
+        if (contribution == null) {
+            return;
+        }
+
+        ItemStackKey key = new ItemStackKey(stack);
+
+        if (contribution.get(key) == 0) {
+            addHolder(storage, key);
+        }
+
+        contribution.add(key, stack.stackSize);
+
+        if (listed.contains(storage)) {
+            list.add(stack);
+
+            version++;
 
-        if (!rebuilding) {
             network.sendItemStorageDeltaToClient(stack, stack.stackSize);
         }
     }
 
     @Override
-    public synchronized void remove(@Nonnull ItemStack stack) {
-        if (list.remove(stack, !network.hasPattern(stack))) {
+    public synchronized void remove(@Nonnull IItemStorage storage, @Nonnull ItemStack stack) {
+        ItemStackCounts contribution = contributions.get(storage);
+
+        if (contribution == null) {
+            return;
+        }
+
+        ItemStackKey key = new ItemStackKey(stack);
+
+        if (contribution.remove(key, stack.stackSize) == 0) {
+            removeHolder(storage, key);
+        }
+
+        if (listed.contains(storage) && list.remove(stack, !network.hasPattern(stack))) {
+            version++;
+
             network.sendItemStorageDeltaToClient(stack, -stack.stackSize);
         }
+
+        list.releaseIds();
+    }
+
+    @Override
+    @Deprecated
+    public synchronized void add(@Nonnull ItemStack stack, boolean rebuilding) {
+        invalidateContents();
+    }
+
+    @Override
+    @Deprecated
+    public synchronized void remove(@Nonnull ItemStack stack) {
+        invalidateContents();
+    }
+
+    // Without the storage we can't tell whose contribution changed, so re-read all of them
+    private void invalidateContents() {
+        for (IItemStorage storage : new ArrayList<>(storages)) {
+            invalidate(storage);
+        }
+    }
+
+    @Override
+    public synchronized List<IItemStorage> getStorages(@Nonnull ItemStack stack) {
+        Set<IItemStorage> storagesHolding = holders.get(new ItemStackKey(stack));
+
+        if (storagesHolding == null) {
+            return Collections.emptyList();
+        }
+
+        List<IItemStorage> sorted = new ArrayList<>(storagesHolding);
+
+        sorted.sort(Comparator.comparingInt(storage -> positions.getOrDefault(storage, Integer.MAX_VALUE)));
+
+        return sorted;
+    }
+
+    @Override
+    public synchronized List<IItemStorage> getInsertionOrder(@Nonnull ItemStack stack) {
+        ItemStackKey key = new ItemStackKey(stack);
+
+        List<IItemStorage> order = insertionOrders.get(key);
+
+        if (order == null) {
+            Set<IItemStorage> storagesHolding = holders.get(key);
+
+            if (storagesHolding == null) {
+                return storages;
+            }
+
+            order = new ArrayList<>(storages.size());
+
+            // The storages are sorted on priority, so the storages with the same priority follow each other
+            int start = 0;
+
+            while (start < storages.size()) {
+                int priority = storages.get(start).getPriority();
+                int end = start;
+
+                while (end < storages.size() && storages.get(end).getPriority() == priority) {
+                    end++;
+                }
+
+                for (int i = start; i < end; ++i) {
+                    if (storagesHolding.contains(storages.get(i))) {
+                        order.add(storages.get(i));
+                    }
+                }
+
+                for (int i = start; i < end; ++i) {
+                    if (!storagesHolding.contains(storages.get(i))) {
+                        order.add(storages.get(i));
+                    }
+                }
+
+                start = end;
+            }
+
+            order = Collections.unmodifiableList(order);
+
+            insertionOrders.put(key.intern(), order);
+        }
+
+        return order;
+    }
+
+    private ItemStackCounts createContribution(IItemStorage storage) {
+        ItemStackCounts contribution = new ItemStackCounts();
+
+        for (ItemStack stack : storage.getStacks()) {
+            if (stack.stackSize > 0) {
+                contribution.add(new ItemStackKey(stack), stack.stackSize);
+            }
+        }
+
+        return contribution;
+    }
+
+    private void addHolder(IItemStorage storage, ItemStackKey key) {
+        Set<IItemStorage> storagesHolding = holders.get(key);
+
+        if (storagesHolding == null) {
+            storagesHolding = new HashSet<>();
+
+            holders.put(key.intern(), storagesHolding);
+        }
+
+        if (storagesHolding.add(storage)) {
+            insertionOrders.remove(key);
+        }
+    }
+
+    private void removeHolder(IItemStorage storage, ItemStackKey key) {
+        Set<IItemStorage> storagesHolding = holders.get(key);
+
+        if (storagesHolding != null && storagesHolding.remove(storage)) {
+            insertionOrders.remove(key);
+
+            if (storagesHolding.isEmpty()) {
+                holders.remove(key);
+            }
+        }
+    }
+
+    private void addToList(ItemStackKey key, int size, List<Pair<ItemStack, Integer>> deltas) {
+        ItemStack added = key.createStack(size);
+
+        list.add(added);
+
+        version++;
+
+        deltas.add(Pair.of(added, size));
+    }
+
+    private void removeFromList(ItemStackKey key, int size, List<Pair<ItemStack, Integer>> deltas) {
+        ItemStack removed = key.createStack(size);
+
+        if (list.remove(removed, size, !network.hasPattern(removed))) {
+            version++;
+
+            deltas.add(Pair.of(removed, -size));
+        }
     }
 
     @Override
@@ -75,6 +384,21 @@ public class ItemStorageCache implements IItemStorageCache {
         return list;
     }
 
+    @Override
+    public synchronized IItemStackList getSnapshot() {
+        if (snapshotVersion != version) {
+            snapshot = list.copy();
+            snapshotVersion = version;
+        }
+
+        return snapshot;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
     @Override
     public List<IItemStorage> getStorages() {
         return storages;
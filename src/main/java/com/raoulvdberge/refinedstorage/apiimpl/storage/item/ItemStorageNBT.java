@@ -1,17 +1,25 @@
 package com.raoulvdberge.refinedstorage.apiimpl.storage.item;
 
 import com.raoulvdberge.refinedstorage.api.storage.item.IItemStorage;
+import com.raoulvdberge.refinedstorage.api.util.IComparer;
 import com.raoulvdberge.refinedstorage.apiimpl.API;
+import com.raoulvdberge.refinedstorage.apiimpl.storage.StorageDiskData;
+import com.raoulvdberge.refinedstorage.apiimpl.util.ItemStackKey;
+import com.raoulvdberge.refinedstorage.apiimpl.util.NBTTagPool;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.tileentity.TileEntity;
+import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.items.IItemHandler;
 import net.minecraftforge.items.ItemHandlerHelper;
 
 import javax.annotation.Nullable;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * A implementation of {@link IItemStorage} that stores storage items in NBT.
@@ -21,11 +29,14 @@ public abstract class ItemStorageNBT implements IItemStorage {
      * The current save protocol that is used. It's set to every {@link ItemStorageNBT} to allow for
      * safe backwards compatibility breaks.
      */
-    private static final int PROTOCOL = 1;
+    private static final int PROTOCOL = 2;
+
+    private static final int COMPARE_EXACT = IComparer.COMPARE_DAMAGE | IComparer.COMPARE_NBT;
 
     private static final String NBT_PROTOCOL = "Protocol";
 
     private static final String NBT_ITEMS = "Items";
+    private static final String NBT_ITEM_EXTRAS = "ItemExtras";
     private static final String NBT_STORED = "Stored";
 
     private static final String NBT_ITEM_TYPE = "Type";
@@ -33,12 +44,33 @@ public abstract class ItemStorageNBT implements IItemStorage {
     private static final String NBT_ITEM_DAMAGE = "Damage";
     private static final String NBT_ITEM_NBT = "NBT";
     private static final String NBT_ITEM_CAPS = "Caps";
+    private static final String NBT_ITEM_INDEX = "Index";
+
+    /**
+     * Since protocol 2 every item is packed as the item id, the damage and the quantity in one int array.
+     * Only items with NBT or capabilities get an entry in a separate list, referring to the item by index.
+     */
+    private static final int PACKED_ITEM_SIZE = 3;
 
     private NBTTagCompound tag;
     private int capacity;
     private TileEntity tile;
-
-    private List<ItemStack> stacks = new ArrayList<>();
+    // Set when the contents are kept in StorageDiskData instead of the tag of the disk itself
+    @Nullable
+    private IItemHandler disks;
+    private int diskSlot;
+    @Nullable
+    private UUID diskId;
+    @Nullable
+    private StorageDiskData diskData;
+
+    private Map<ItemStackKey, ItemStack> stacks = new LinkedHashMap<>();
+    // Only written to the tag in writeToNBT()
+    private int stored;
+    // Whether the stacks changed since the last writeToNBT(), the tile only has to be marked dirty once until then
+    private boolean dirty;
+    // The stacks are only read from the tag once they are needed, see load()
+    private boolean loaded;
 
     /**
      * @param tag      The NBT tag we are reading from and writing the amount stored to, has to be initialized with {@link ItemStorageNBT#createNBT()} if it doesn't exist yet
@@ -49,11 +81,69 @@ public abstract class ItemStorageNBT implements IItemStorage {
         this.tag = tag;
         this.capacity = capacity;
         this.tile = tile;
+        this.stored = getStoredFromNBT(tag);
+    }
+
+    /**
+     * @param disks    The inventory of the storage disk, the items on it are kept in {@link StorageDiskData}
+     * @param slot     The slot of the storage disk
+     * @param capacity The capacity of this storage, -1 for infinite capacity
+     * @param tile     A {@link TileEntity} that the disk is in, will be marked dirty when the storage changes
+     */
+    public ItemStorageNBT(IItemHandler disks, int slot, int capacity, @Nullable TileEntity tile) {
+        ItemStack disk = disks.getStackInSlot(slot);
+
+        // The tile has no world yet while it's read from a chunk, the disk data is the same for every world anyway
+        this.diskData = StorageDiskData.get(tile != null ? tile.getWorld() : null);
+        this.tag = diskData.acquire(disk, this, ItemStorageNBT::createNBT);
+        this.capacity = capacity;
+        this.tile = tile;
+        this.stored = getStoredFromNBT(tag);
+        this.disks = disks;
+        this.diskSlot = slot;
+        this.diskId = StorageDiskData.getId(disk);
+    }
 
-        readFromNBT();
+    /**
+     * Called when this storage is no longer used for its disk, so another storage can use the disk.
+     */
+    public void releaseDisk() {
+        if (diskId != null) {
+            diskData.release(diskId, this);
+        }
+    }
+
+    private void load() {
+        if (!loaded) {
+            readFromNBT();
+        }
     }
 
+    /**
+     * Reads the stacks from the tag, the stacks that are in this storage are replaced.
+     */
     public void readFromNBT() {
+        loaded = true;
+
+        stacks.clear();
+
+        boolean legacy = tag.getInteger(NBT_PROTOCOL) < 2;
+
+        if (legacy) {
+            readLegacyFromNBT();
+        } else {
+            readPackedFromNBT();
+        }
+
+        stored = getStoredFromNBT(this.tag);
+
+        if (legacy) {
+            // Upgrades the tag to the current protocol on the next save, this has to mark the tile and disk data dirty as well
+            onStorageChanged();
+        }
+    }
+
+    private void readLegacyFromNBT() {
         NBTTagList list = (NBTTagList) tag.getTag(NBT_ITEMS);
 
         for (int i = 0; i < list.tagCount(); ++i) {
@@ -68,9 +158,52 @@ public abstract class ItemStorageNBT implements IItemStorage {
 
             stack.setTagCompound(tag.hasKey(NBT_ITEM_NBT) ? tag.getCompoundTag(NBT_ITEM_NBT) : null);
 
-            if (stack.getItem() != null) {
-                stacks.add(stack);
+            readStack(stack);
+        }
+    }
+
+    private void readPackedFromNBT() {
+        int[] items = tag.getIntArray(NBT_ITEMS);
+        NBTTagList extras = tag.getTagList(NBT_ITEM_EXTRAS, Constants.NBT.TAG_COMPOUND);
+
+        // The extras are written in the same order as the items
+        int extra = 0;
+
+        for (int i = 0; i < items.length / PACKED_ITEM_SIZE; ++i) {
+            NBTTagCompound extraTag = null;
+
+            if (extra < extras.tagCount() && extras.getCompoundTagAt(extra).getInteger(NBT_ITEM_INDEX) == i) {
+                extraTag = extras.getCompoundTagAt(extra++);
             }
+
+            ItemStack stack = new ItemStack(
+                Item.getItemById(items[i * PACKED_ITEM_SIZE]),
+                items[i * PACKED_ITEM_SIZE + 2],
+                items[i * PACKED_ITEM_SIZE + 1],
+                extraTag != null && extraTag.hasKey(NBT_ITEM_CAPS) ? extraTag.getCompoundTag(NBT_ITEM_CAPS) : null
+            );
+
+            stack.setTagCompound(extraTag != null && extraTag.hasKey(NBT_ITEM_NBT) ? extraTag.getCompoundTag(NBT_ITEM_NBT) : null);
+
+            readStack(stack);
+        }
+    }
+
+    private void readStack(ItemStack stack) {
+        if (stack.getItem() == null) {
+            return;
+        }
+
+        ItemStackKey key = new ItemStackKey(stack);
+        ItemStack otherStack = stacks.get(key);
+
+        if (otherStack != null) {
+            otherStack.stackSize += stack.stackSize;
+        } else {
+            // Disks often hold the same tags, store them once
+            stack.setTagCompound(NBTTagPool.intern(stack.getTagCompound()));
+
+            stacks.put(new ItemStackKey(stack), stack);
         }
     }
 
@@ -82,127 +215,150 @@ public abstract class ItemStorageNBT implements IItemStorage {
     }
 
     /**
-     * Writes the items to the NBT tag.
+     * Writes the items to the NBT tag, if nothing changed since the last write the tag is left as is.
      */
     public void writeToNBT() {
-        NBTTagList list = new NBTTagList();
+        if (!dirty) {
+            return;
+        }
+
+        dirty = false;
+
+        int[] items = new int[stacks.size() * PACKED_ITEM_SIZE];
+        NBTTagList extras = new NBTTagList();
 
         // Dummy value for extracting ForgeCaps
         NBTTagCompound dummy = new NBTTagCompound();
 
-        for (ItemStack stack : stacks) {
-            NBTTagCompound itemTag = new NBTTagCompound();
+        int i = 0;
 
-            itemTag.setInteger(NBT_ITEM_TYPE, Item.getIdFromItem(stack.getItem()));
-            itemTag.setInteger(NBT_ITEM_QUANTITY, stack.stackSize);
-            itemTag.setInteger(NBT_ITEM_DAMAGE, stack.getItemDamage());
+        for (ItemStack stack : stacks.values()) {
+            items[i * PACKED_ITEM_SIZE] = Item.getIdFromItem(stack.getItem());
+            items[i * PACKED_ITEM_SIZE + 1] = stack.getItemDamage();
+            items[i * PACKED_ITEM_SIZE + 2] = stack.stackSize;
 
+            NBTTagCompound extraTag = new NBTTagCompound();
+
+            // The tag of the stack is shared with other stacks, the tag of the disk can be modified by others
             if (stack.hasTagCompound()) {
-                itemTag.setTag(NBT_ITEM_NBT, stack.getTagCompound());
+                extraTag.setTag(NBT_ITEM_NBT, stack.getTagCompound().copy());
             }
 
             stack.writeToNBT(dummy);
 
             if (dummy.hasKey("ForgeCaps")) {
-                itemTag.setTag(NBT_ITEM_CAPS, dummy.getTag("ForgeCaps"));
+                extraTag.setTag(NBT_ITEM_CAPS, dummy.getTag("ForgeCaps"));
             }
 
             dummy.removeTag("ForgeCaps");
 
-            list.appendTag(itemTag);
+            if (!extraTag.hasNoTags()) {
+                extraTag.setInteger(NBT_ITEM_INDEX, i);
+
+                extras.appendTag(extraTag);
+            }
+
+            i++;
         }
 
-        tag.setTag(NBT_ITEMS, list);
+        tag.setIntArray(NBT_ITEMS, items);
+        tag.setTag(NBT_ITEM_EXTRAS, extras);
+        tag.setInteger(NBT_STORED, stored);
         tag.setInteger(NBT_PROTOCOL, PROTOCOL);
+
+        if (diskId != null) {
+            // The disk is read from its slot, the stack we were created with can be replaced in the meantime
+            StorageDiskData.setStored(disks.getStackInSlot(diskSlot), diskId, stored);
+        }
     }
 
     @Override
-    public List<ItemStack> getStacks() {
-        return stacks;
+    public Collection<ItemStack> getStacks() {
+        load();
+
+        return stacks.values();
     }
 
     @Override
     public synchronized ItemStack insertItem(ItemStack stack, int size, boolean simulate) {
-        for (ItemStack otherStack : stacks) {
-            if (API.instance().getComparer().isEqualNoQuantity(otherStack, stack)) {
-                if (getCapacity() != -1 && getStored() + size > getCapacity()) {
-                    int remainingSpace = getCapacity() - getStored();
-
-                    if (remainingSpace <= 0) {
-                        return ItemHandlerHelper.copyStackWithSize(stack, size);
-                    }
-
-                    if (!simulate) {
-                        tag.setInteger(NBT_STORED, getStored() + remainingSpace);
-
-                        otherStack.stackSize += remainingSpace;
-
-                        onStorageChanged();
-                    }
-
-                    return ItemHandlerHelper.copyStackWithSize(otherStack, size - remainingSpace);
-                } else {
-                    if (!simulate) {
-                        tag.setInteger(NBT_STORED, getStored() + size);
-
-                        otherStack.stackSize += size;
-
-                        onStorageChanged();
-                    }
-
-                    return null;
-                }
-            }
-        }
-
-        if (getCapacity() != -1 && getStored() + size > getCapacity()) {
-            int remainingSpace = getCapacity() - getStored();
+        if (getCapacity() != -1 && stored + size > getCapacity()) {
+            int remainingSpace = getCapacity() - stored;
 
             if (remainingSpace <= 0) {
                 return ItemHandlerHelper.copyStackWithSize(stack, size);
             }
 
             if (!simulate) {
-                tag.setInteger(NBT_STORED, getStored() + remainingSpace);
-
-                stacks.add(safeCopy(stack, remainingSpace));
-
-                onStorageChanged();
+                insert(stack, remainingSpace);
             }
 
             return ItemHandlerHelper.copyStackWithSize(stack, size - remainingSpace);
         } else {
             if (!simulate) {
-                tag.setInteger(NBT_STORED, getStored() + size);
-
-                stacks.add(safeCopy(stack, size));
-
-                onStorageChanged();
+                insert(stack, size);
             }
 
             return null;
         }
     }
 
+    private void insert(ItemStack stack, int size) {
+        load();
+
+        ItemStack otherStack = stacks.get(new ItemStackKey(stack));
+
+        if (otherStack != null) {
+            otherStack.stackSize += size;
+        } else {
+            ItemStack newStack = safeCopy(stack, size);
+            newStack.setTagCompound(NBTTagPool.intern(newStack.getTagCompound()));
+
+            stacks.put(new ItemStackKey(newStack), newStack);
+        }
+
+        stored += size;
+
+        onStorageChanged();
+    }
+
     @Override
     public synchronized ItemStack extractItem(ItemStack stack, int size, int flags) {
-        for (ItemStack otherStack : stacks) {
-            if (API.instance().getComparer().isEqual(otherStack, stack, flags)) {
-                if (size > otherStack.stackSize) {
-                    size = otherStack.stackSize;
-                }
+        load();
+
+        ItemStack otherStack = get(stack, flags);
+
+        if (otherStack == null) {
+            return null;
+        }
+
+        if (size > otherStack.stackSize) {
+            size = otherStack.stackSize;
+        }
 
-                if (otherStack.stackSize - size == 0) {
-                    stacks.remove(otherStack);
-                } else {
-                    otherStack.stackSize -= size;
-                }
+        if (otherStack.stackSize - size == 0) {
+            stacks.remove(new ItemStackKey(otherStack));
+        } else {
+            otherStack.stackSize -= size;
+        }
 
-                tag.setInteger(NBT_STORED, getStored() - size);
+        stored -= size;
 
-                onStorageChanged();
+        onStorageChanged();
 
-                return ItemHandlerHelper.copyStackWithSize(otherStack, size);
+        return ItemHandlerHelper.copyStackWithSize(otherStack, size);
+    }
+
+    @Nullable
+    private ItemStack get(ItemStack stack, int flags) {
+        if ((flags & COMPARE_EXACT) == COMPARE_EXACT && (flags & IComparer.COMPARE_OREDICT) != IComparer.COMPARE_OREDICT) {
+            ItemStack otherStack = stacks.get(new ItemStackKey(stack));
+
+            return otherStack != null && API.instance().getComparer().isEqual(otherStack, stack, flags) ? otherStack : null;
+        }
+
+        for (ItemStack otherStack : stacks.values()) {
+            if (API.instance().getComparer().isEqual(otherStack, stack, flags)) {
+                return otherStack;
             }
         }
 
@@ -210,14 +366,22 @@ public abstract class ItemStorageNBT implements IItemStorage {
     }
 
     public void onStorageChanged() {
-        if (tile != null) {
-            tile.markDirty();
+        if (!dirty) {
+            dirty = true;
+
+            if (tile != null) {
+                tile.markDirty();
+            }
+
+            if (diskId != null) {
+                diskData.markDirty(diskId, this::writeToNBT);
+            }
         }
     }
 
     @Override
     public int getStored() {
-        return getStoredFromNBT(tag);
+        return stored;
     }
 
     public int getCapacity() {
@@ -238,7 +402,8 @@ public abstract class ItemStorageNBT implements IItemStorage {
     public static NBTTagCompound createNBT() {
         NBTTagCompound tag = new NBTTagCompound();
 
-        tag.setTag(NBT_ITEMS, new NBTTagList());
+        tag.setIntArray(NBT_ITEMS, new int[0]);
+        tag.setTag(NBT_ITEM_EXTRAS, new NBTTagList());
         tag.setInteger(NBT_STORED, 0);
         tag.setInteger(NBT_PROTOCOL, PROTOCOL);
 
@@ -246,7 +411,7 @@ public abstract class ItemStorageNBT implements IItemStorage {
     }
 
     public static boolean isValid(ItemStack stack) {
-        return stack.hasTagCompound() && stack.getTagCompound().hasKey(NBT_ITEMS) && stack.getTagCompound().hasKey(NBT_STORED);
+        return stack.hasTagCompound() && (stack.getTagCompound().hasKey(NBT_ITEMS) || StorageDiskData.hasId(stack)) && stack.getTagCompound().hasKey(NBT_STORED);
     }
 
     /**
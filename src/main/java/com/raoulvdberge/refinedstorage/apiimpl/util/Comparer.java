@@ -1,12 +1,19 @@
 package com.raoulvdberge.refinedstorage.apiimpl.util;
 
 import com.raoulvdberge.refinedstorage.api.util.IComparer;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.oredict.OreDictionary;
 import org.apache.commons.lang3.ArrayUtils;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class Comparer implements IComparer {
+    // Ore ids only depend on the item and damage, and the ore dictionary is filled before any world is loaded
+    private static final Map<Item, Map<Integer, int[]>> ORE_IDS = new ConcurrentHashMap<>();
+
     @Override
     public boolean isEqual(ItemStack left, ItemStack right, int flags) {
         if (left == null && right == null) {
@@ -69,7 +76,7 @@ public class Comparer implements IComparer {
         }
 
         if ((flags & COMPARE_NBT) == COMPARE_NBT) {
-            if (left.tag != null && !left.tag.equals(right.tag)) {
+            if (left.tag != null && !NBTTagPool.isEqual(left.tag, right.tag)) {
                 return false;
             }
         }
@@ -79,7 +86,8 @@ public class Comparer implements IComparer {
 
     @Override
     public boolean isEqualNBT(ItemStack left, ItemStack right) {
-        if (!ItemStack.areItemStackTagsEqual(left, right)) {
+        // Same as ItemStack#areItemStackTagsEqual, but canonical tags are compared without walking them
+        if (!NBTTagPool.isEqual(left.getTagCompound(), right.getTagCompound()) || !left.areCapsCompatible(right)) {
             if (left.hasTagCompound() && !right.hasTagCompound() && left.getTagCompound().hasNoTags()) {
                 return true;
             } else if (!left.hasTagCompound() && right.hasTagCompound() && right.getTagCompound().hasNoTags()) {
@@ -102,8 +110,8 @@ public class Comparer implements IComparer {
             return false;
         }
 
-        int[] leftIds = OreDictionary.getOreIDs(left);
-        int[] rightIds = OreDictionary.getOreIDs(right);
+        int[] leftIds = getOreIds(left);
+        int[] rightIds = getOreIds(right);
 
         for (int i : rightIds) {
             if (ArrayUtils.contains(leftIds, i)) {
@@ -113,4 +121,12 @@ public class Comparer implements IComparer {
 
         return false;
     }
+
+    /**
+     * @param stack the stack
+     * @return the ore ids of the stack, the returned array may not be modified
+     */
+    public static int[] getOreIds(ItemStack stack) {
+        return ORE_IDS.computeIfAbsent(stack.getItem(), item -> new ConcurrentHashMap<>()).computeIfAbsent(stack.getItemDamage(), damage -> OreDictionary.getOreIDs(stack));
+    }
 }
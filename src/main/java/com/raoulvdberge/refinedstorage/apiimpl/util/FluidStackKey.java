@@ -0,0 +1,69 @@
+package com.raoulvdberge.refinedstorage.apiimpl.util;
+
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraftforge.fluids.Fluid;
+import net.minecraftforge.fluids.FluidStack;
+
+import javax.annotation.Nullable;
+
+/**
+ * The identity of a {@link FluidStack} without its amount: the fluid and the NBT tag.
+ * Two stacks that are equal according to {@link FluidStack#isFluidEqual(FluidStack)} have equal keys,
+ * so keys can be used to index stacks in hash based collections.
+ * <p>
+ * The key refers to the NBT tag of the stack it was created from, that tag may not be modified while the key is in use.
+ */
+public final class FluidStackKey {
+    private final Fluid fluid;
+    @Nullable
+    private final NBTTagCompound tag;
+    private final int hash;
+
+    public FluidStackKey(FluidStack stack) {
+        this(stack.getFluid(), stack.tag);
+    }
+
+    public FluidStackKey(Fluid fluid, @Nullable NBTTagCompound tag) {
+        this.fluid = fluid;
+        this.tag = tag;
+
+        int result = fluid != null ? fluid.hashCode() : 0;
+        result = 31 * result + NBTTagPool.hashCode(tag);
+
+        this.hash = result;
+    }
+
+    public Fluid getFluid() {
+        return fluid;
+    }
+
+    @Nullable
+    public NBTTagCompound getTag() {
+        return tag;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof FluidStackKey)) {
+            return false;
+        }
+
+        FluidStackKey other = (FluidStackKey) o;
+
+        return hash == other.hash && fluid == other.fluid && NBTTagPool.isEqual(tag, other.tag);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "FluidStackKey{fluid=" + (fluid != null ? fluid.getName() : null) + ", tag=" + tag + "}";
+    }
+}
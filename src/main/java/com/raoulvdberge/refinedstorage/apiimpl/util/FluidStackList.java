@@ -1,6 +1,8 @@
 package com.raoulvdberge.refinedstorage.apiimpl.util;
 
-import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
+import com.raoulvdberge.refinedstorage.api.util.IComparer;
 import com.raoulvdberge.refinedstorage.api.util.IFluidStackList;
 import com.raoulvdberge.refinedstorage.apiimpl.API;
 import net.minecraftforge.fluids.Fluid;
@@ -8,41 +10,45 @@ import net.minecraftforge.fluids.FluidStack;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Collection;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.*;
 
 public class FluidStackList implements IFluidStackList {
-    private ArrayListMultimap<Fluid, FluidStack> stacks = ArrayListMultimap.create();
+    private Map<FluidStackKey, FluidStack> stacks = new LinkedHashMap<>();
+    // Secondary index for lookups that don't compare on NBT
+    private SetMultimap<Fluid, FluidStack> stacksByFluid = LinkedHashMultimap.create();
+    // Secondary index for lookups by hash, see get(int)
+    private SetMultimap<Integer, FluidStack> stacksByHash = LinkedHashMultimap.create();
     private List<FluidStack> removeTracker = new LinkedList<>();
 
     @Override
     public void add(FluidStack stack) {
-        for (FluidStack otherStack : stacks.get(stack.getFluid())) {
-            if (stack.isFluidEqual(otherStack)) {
-                otherStack.amount += stack.amount;
+        FluidStack otherStack = stacks.get(new FluidStackKey(stack));
 
-                return;
-            }
+        if (otherStack != null) {
+            otherStack.amount += stack.amount;
+
+            return;
         }
 
-        stacks.put(stack.getFluid(), stack.copy());
+        FluidStack newStack = stack.copy();
+
+        stacks.put(new FluidStackKey(newStack), newStack);
+        index(newStack);
     }
 
     @Override
     public boolean remove(@Nonnull FluidStack stack, int size, boolean removeIfReachedZero) {
-        for (FluidStack otherStack : stacks.get(stack.getFluid())) {
-            if (stack.isFluidEqual(otherStack)) {
-                otherStack.amount -= size;
-                boolean success = otherStack.amount >= 0;
+        FluidStack otherStack = stacks.get(new FluidStackKey(stack));
 
-                if (otherStack.amount <= 0 && removeIfReachedZero) {
-                    stacks.remove(otherStack.getFluid(), otherStack);
-                }
+        if (otherStack != null) {
+            otherStack.amount -= size;
+            boolean success = otherStack.amount >= 0;
 
-                return success;
+            if (otherStack.amount <= 0 && removeIfReachedZero) {
+                removeStack(otherStack);
             }
+
+            return success;
         }
 
         return false;
@@ -50,24 +56,39 @@ public class FluidStackList implements IFluidStackList {
 
     @Override
     public boolean trackedRemove(@Nonnull FluidStack stack, int size, boolean removeIfReachedZero) {
-        for (FluidStack otherStack : stacks.get(stack.getFluid())) {
-            if (otherStack.amount > 0 && stack.isFluidEqual(otherStack)) {
-                FluidStack removed = new FluidStack(otherStack.getFluid(), Math.min(size, otherStack.amount));
-                this.removeTracker.add(removed);
-                otherStack.amount -= size;
-                boolean success = otherStack.amount >= 0;
-
-                if (otherStack.amount <= 0 && removeIfReachedZero) {
-                    stacks.remove(otherStack.getFluid(), otherStack);
-                }
+        FluidStack otherStack = stacks.get(new FluidStackKey(stack));
 
-                return success;
+        if (otherStack != null && otherStack.amount > 0) {
+            FluidStack removed = new FluidStack(otherStack.getFluid(), Math.min(size, otherStack.amount));
+            this.removeTracker.add(removed);
+            otherStack.amount -= size;
+            boolean success = otherStack.amount >= 0;
+
+            if (otherStack.amount <= 0 && removeIfReachedZero) {
+                removeStack(otherStack);
             }
+
+            return success;
         }
 
         return false;
     }
 
+    private void removeStack(FluidStack stack) {
+        stacks.remove(new FluidStackKey(stack));
+        unindex(stack);
+    }
+
+    private void index(FluidStack stack) {
+        stacksByFluid.put(stack.getFluid(), stack);
+        stacksByHash.put(API.instance().getFluidStackHashCode(stack), stack);
+    }
+
+    private void unindex(FluidStack stack) {
+        stacksByFluid.remove(stack.getFluid(), stack);
+        stacksByHash.remove(API.instance().getFluidStackHashCode(stack), stack);
+    }
+
     @Override
     public void undo() {
         removeTracker.forEach(this::add);
@@ -77,7 +98,26 @@ public class FluidStackList implements IFluidStackList {
     @Override
     @Nullable
     public FluidStack get(@Nonnull FluidStack stack, int flags) {
-        for (FluidStack otherStack : stacks.get(stack.getFluid())) {
+        if ((flags & IComparer.COMPARE_NBT) == IComparer.COMPARE_NBT) {
+            // Only the stack with the same key can match, or the stack without a tag as that one matches any tag
+            FluidStack otherStack = stacks.get(new FluidStackKey(stack));
+
+            if (otherStack != null && API.instance().getComparer().isEqual(otherStack, stack, flags)) {
+                return otherStack;
+            }
+
+            if (stack.tag != null) {
+                otherStack = stacks.get(new FluidStackKey(stack.getFluid(), null));
+
+                if (otherStack != null && API.instance().getComparer().isEqual(otherStack, stack, flags)) {
+                    return otherStack;
+                }
+            }
+
+            return null;
+        }
+
+        for (FluidStack otherStack : stacksByFluid.get(stack.getFluid())) {
             if (API.instance().getComparer().isEqual(otherStack, stack, flags)) {
                 return otherStack;
             }
@@ -89,27 +129,31 @@ public class FluidStackList implements IFluidStackList {
     @Override
     @Nullable
     public FluidStack get(int hash) {
-        for (FluidStack stack : this.stacks.values()) {
-            if (API.instance().getFluidStackHashCode(stack) == hash) {
-                return stack;
-            }
-        }
+        Iterator<FluidStack> it = stacksByHash.get(hash).iterator();
 
-        return null;
+        return it.hasNext() ? it.next() : null;
     }
 
     @Override
     public void clear() {
         stacks.clear();
+        stacksByFluid.clear();
+        stacksByHash.clear();
     }
 
     @Override
     public void clean() {
-        List<FluidStack> toRemove = stacks.values().stream()
-                .filter(stack -> stack.amount <= 0)
-                .collect(Collectors.toList());
+        Iterator<FluidStack> it = stacks.values().iterator();
+
+        while (it.hasNext()) {
+            FluidStack stack = it.next();
 
-        toRemove.forEach(stack -> stacks.remove(stack.getFluid(), stack));
+            if (stack.amount <= 0) {
+                it.remove();
+
+                unindex(stack);
+            }
+        }
     }
 
     @Override
@@ -129,7 +173,10 @@ public class FluidStackList implements IFluidStackList {
         FluidStackList list = new FluidStackList();
 
         for (FluidStack stack : stacks.values()) {
-            list.stacks.put(stack.getFluid(), stack.copy());
+            FluidStack newStack = stack.copy();
+
+            list.stacks.put(new FluidStackKey(newStack), newStack);
+            list.index(newStack);
         }
 
         return list;
@@ -137,6 +184,6 @@ public class FluidStackList implements IFluidStackList {
 
     @Override
     public String toString() {
-        return stacks.toString();
+        return stacks.values().toString();
     }
 }
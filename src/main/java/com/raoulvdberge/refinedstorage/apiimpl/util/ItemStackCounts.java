@@ -0,0 +1,158 @@
+package com.raoulvdberge.refinedstorage.apiimpl.util;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Amounts per {@link ItemStackKey}, without an {@link net.minecraft.item.ItemStack} for every entry.
+ * The keys are interned and the amounts are kept in a primitive array next to them, using open addressing with linear probing.
+ */
+public class ItemStackCounts {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private ItemStackKey[] keys = new ItemStackKey[INITIAL_CAPACITY];
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @param key the key
+     * @return the amount of the key, 0 if there is none
+     */
+    public int get(ItemStackKey key) {
+        int slot = find(key);
+
+        return keys[slot] != null ? counts[slot] : 0;
+    }
+
+    /**
+     * @param key   the key, doesn't have to be interned
+     * @param count the amount to add
+     * @return the new amount
+     */
+    public int add(ItemStackKey key, int count) {
+        int slot = find(key);
+
+        if (keys[slot] != null) {
+            counts[slot] = (int) Math.min((long) counts[slot] + count, Integer.MAX_VALUE);
+
+            return counts[slot];
+        }
+
+        keys[slot] = key.intern();
+        counts[slot] = count;
+
+        if (++size > keys.length * 3 / 4) {
+            resize();
+        }
+
+        return count;
+    }
+
+    /**
+     * Removes an amount, the key is removed when its amount reaches 0.
+     *
+     * @param key   the key
+     * @param count the amount to remove
+     * @return the new amount
+     */
+    public int remove(ItemStackKey key, int count) {
+        int slot = find(key);
+
+        if (keys[slot] == null) {
+            return 0;
+        }
+
+        counts[slot] -= count;
+
+        if (counts[slot] <= 0) {
+            removeSlot(slot);
+
+            return 0;
+        }
+
+        return counts[slot];
+    }
+
+    public void forEach(ObjIntConsumer<ItemStackKey> consumer) {
+        for (int i = 0; i < keys.length; ++i) {
+            if (keys[i] != null) {
+                consumer.accept(keys[i], counts[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the slot of the key, or the empty slot where it would go
+     */
+    private int find(ItemStackKey key) {
+        int mask = keys.length - 1;
+        int slot = home(key, mask);
+
+        while (keys[slot] != null && !keys[slot].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private static int home(ItemStackKey key, int mask) {
+        int hash = key.hashCode();
+
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int i = slot;
+
+        // Moves the entries after the hole back, so lookups don't stop at the hole
+        while (true) {
+            i = (i + 1) & mask;
+
+            if (keys[i] == null) {
+                break;
+            }
+
+            int home = home(keys[i], mask);
+
+            boolean reachable = hole <= i ? (home > hole && home <= i) : (home > hole || home <= i);
+
+            if (!reachable) {
+                keys[hole] = keys[i];
+                counts[hole] = counts[i];
+
+                hole = i;
+            }
+        }
+
+        keys[hole] = null;
+        counts[hole] = 0;
+
+        size--;
+    }
+
+    private void resize() {
+        ItemStackKey[] oldKeys = keys;
+        int[] oldCounts = counts;
+
+        keys = new ItemStackKey[oldKeys.length * 2];
+        counts = new int[oldCounts.length * 2];
+
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] != null) {
+                int slot = find(oldKeys[i]);
+
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+}
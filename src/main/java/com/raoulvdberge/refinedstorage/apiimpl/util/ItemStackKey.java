@@ -0,0 +1,128 @@
+package com.raoulvdberge.refinedstorage.apiimpl.util;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+import javax.annotation.Nullable;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The identity of an {@link ItemStack} without its quantity: the item, the damage, the NBT tag and the capabilities.
+ * Two stacks that are equal according to {@link com.raoulvdberge.refinedstorage.api.util.IComparer#isEqualNoQuantity(ItemStack, ItemStack)}
+ * have equal keys, so keys can be used to index stacks in hash based collections.
+ * <p>
+ * The key refers to the stack it was created from and its NBT tag, those may not be modified while the key is in use.
+ * {@link #getTag()} returns that tag as well, {@link #createStack(int)} makes a copy.
+ * Keys that are kept around for long should be interned with {@link #intern()}, interned keys refer to the canonical
+ * instance of the tag from {@link NBTTagPool} and to a copy of the stack, and are shared by everything that holds the same item.
+ * <p>
+ * Capabilities aren't part of the hash code, stacks that only differ in their capabilities end up in the same bucket.
+ */
+public final class ItemStackKey {
+    // Weak so keys that are no longer used anywhere can be collected, see intern()
+    private static final Map<ItemStackKey, WeakReference<ItemStackKey>> INTERNED = new WeakHashMap<>();
+
+    private final Item item;
+    private final int damage;
+    @Nullable
+    private final NBTTagCompound tag;
+    private final int hash;
+    // Only used to compare the capabilities, see ItemStack#areCapsCompatible
+    private final ItemStack stack;
+
+    public ItemStackKey(ItemStack stack) {
+        this.stack = stack;
+        this.item = stack.getItem();
+        this.damage = stack.getItemDamage();
+        // An empty tag compares equal to no tag at all, see Comparer#isEqualNBT
+        this.tag = stack.hasTagCompound() && !stack.getTagCompound().hasNoTags() ? stack.getTagCompound() : null;
+
+        int result = item != null ? item.hashCode() : 0;
+        result = 31 * result + damage;
+        result = 31 * result + NBTTagPool.hashCode(tag);
+
+        this.hash = result;
+    }
+
+    private ItemStackKey(ItemStack stack, Item item, int damage, @Nullable NBTTagCompound tag, int hash) {
+        this.stack = stack;
+        this.item = item;
+        this.damage = damage;
+        this.tag = tag;
+        this.hash = hash;
+    }
+
+    /**
+     * @return the canonical instance of this key, which doesn't refer to the tag of any stack
+     */
+    public ItemStackKey intern() {
+        synchronized (INTERNED) {
+            WeakReference<ItemStackKey> reference = INTERNED.get(this);
+
+            ItemStackKey key = reference != null ? reference.get() : null;
+
+            if (key == null) {
+                key = new ItemStackKey(stack.copy(), item, damage, NBTTagPool.intern(tag), hash);
+
+                INTERNED.put(key, new WeakReference<>(key));
+            }
+
+            return key;
+        }
+    }
+
+    /**
+     * @param size the stack size
+     * @return a new stack for this key, with a copy of the tag and the capabilities
+     */
+    public ItemStack createStack(int size) {
+        ItemStack newStack = stack.copy();
+
+        newStack.stackSize = size;
+        // An empty tag isn't part of the key
+        newStack.setTagCompound(tag != null ? tag.copy() : null);
+
+        return newStack;
+    }
+
+    public Item getItem() {
+        return item;
+    }
+
+    public int getDamage() {
+        return damage;
+    }
+
+    @Nullable
+    public NBTTagCompound getTag() {
+        return tag;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof ItemStackKey)) {
+            return false;
+        }
+
+        ItemStackKey other = (ItemStackKey) o;
+
+        return hash == other.hash && item == other.item && damage == other.damage && NBTTagPool.isEqual(tag, other.tag) && stack.areCapsCompatible(other.stack);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "ItemStackKey{item=" + item + ", damage=" + damage + ", tag=" + tag + "}";
+    }
+}
@@ -1,6 +1,7 @@
 package com.raoulvdberge.refinedstorage.apiimpl.util;
 
-import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
 import com.raoulvdberge.refinedstorage.api.util.IComparer;
 import com.raoulvdberge.refinedstorage.api.util.IItemStackList;
 import com.raoulvdberge.refinedstorage.apiimpl.API;
@@ -10,46 +11,77 @@ import net.minecraftforge.items.ItemHandlerHelper;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Collection;
-import java.util.Deque;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ItemStackList implements IItemStackList {
-    private ArrayListMultimap<Item, ItemStack> stacks = ArrayListMultimap.create();
+    private static final int COMPARE_EXACT = IComparer.COMPARE_DAMAGE | IComparer.COMPARE_NBT;
+
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
+    private Map<ItemStackKey, ItemStack> stacks = new LinkedHashMap<>();
+    // Secondary index for lookups that don't compare on damage or NBT
+    private SetMultimap<Item, ItemStack> stacksByItem = LinkedHashMultimap.create();
+    // Secondary index for oredict lookups, so only stacks that share an ore id with the requested stack are checked
+    private SetMultimap<Integer, ItemStack> stacksByOreId = LinkedHashMultimap.create();
     private List<ItemStack> removeTracker = new LinkedList<>();
+    // The ids of the stacks in this list
+    private Map<ItemStackKey, Long> ids = new HashMap<>();
+    private Map<Long, ItemStackKey> keys = new HashMap<>();
+    // The ids of removed stacks are kept until releaseIds(), so the removal can still be sent to clients
+    private Map<ItemStackKey, Long> removedIds = new HashMap<>();
+    // The stacks this list may modify in place, the others are shared with a copy of this list and are copied before they are modified
+    private Set<ItemStack> owned = Collections.newSetFromMap(new IdentityHashMap<>());
 
     @Override
     public void add(ItemStack stack) {
-        for (ItemStack otherStack : stacks.get(stack.getItem())) {
-            if (API.instance().getComparer().isEqualNoQuantity(otherStack, stack)) {
-                if ((long) otherStack.stackSize + (long) stack.stackSize > Integer.MAX_VALUE) {
-                    otherStack.stackSize = Integer.MAX_VALUE;
-                } else {
-                    otherStack.stackSize += stack.stackSize;
-                }
+        ItemStack otherStack = stacks.get(new ItemStackKey(stack));
 
-                return;
+        if (otherStack != null) {
+            otherStack = own(otherStack);
+
+            if ((long) otherStack.stackSize + (long) stack.stackSize > Integer.MAX_VALUE) {
+                otherStack.stackSize = Integer.MAX_VALUE;
+            } else {
+                otherStack.stackSize += stack.stackSize;
             }
+
+            return;
+        }
+
+        ItemStack newStack = stack.copy();
+        newStack.setTagCompound(NBTTagPool.intern(newStack.getTagCompound()));
+
+        ItemStackKey key = new ItemStackKey(newStack);
+
+        stacks.put(key, newStack);
+        index(newStack);
+        owned.add(newStack);
+
+        Long id = removedIds.remove(key);
+
+        if (id == null) {
+            id = NEXT_ID.getAndIncrement();
         }
 
-        stacks.put(stack.getItem(), stack.copy());
+        ids.put(key, id);
+        keys.put(id, key);
     }
 
     @Override
     public boolean remove(@Nonnull ItemStack stack, int size, boolean removeIfReachedZero) {
-        for (ItemStack otherStack : stacks.get(stack.getItem())) {
-            if (otherStack.stackSize > 0 && API.instance().getComparer().isEqualNoQuantity(otherStack, stack)) {
-                otherStack.stackSize -= size;
-                boolean success = otherStack.stackSize >= 0;
+        ItemStack otherStack = stacks.get(new ItemStackKey(stack));
 
-                if (otherStack.stackSize <= 0 && removeIfReachedZero) {
-                    stacks.remove(otherStack.getItem(), otherStack);
-                }
+        if (otherStack != null && otherStack.stackSize > 0) {
+            otherStack = own(otherStack);
+            otherStack.stackSize -= size;
+            boolean success = otherStack.stackSize >= 0;
 
-                return success;
+            if (otherStack.stackSize <= 0 && removeIfReachedZero) {
+                removeStack(otherStack);
             }
+
+            return success;
         }
 
         return false;
@@ -57,24 +89,82 @@ public class ItemStackList implements IItemStackList {
 
     @Override
     public boolean trackedRemove(@Nonnull ItemStack stack, int size, boolean removeIfReachedZero) {
-        for (ItemStack otherStack : stacks.get(stack.getItem())) {
-            if (otherStack.stackSize > 0 && API.instance().getComparer().isEqualNoQuantity(otherStack, stack)) {
-                ItemStack removed = ItemHandlerHelper.copyStackWithSize(otherStack, Math.min(size, otherStack.stackSize));
-                this.removeTracker.add(removed);
-                otherStack.stackSize -= size;
-                boolean success = otherStack.stackSize >= 0;
-
-                if (otherStack.stackSize <= 0 && removeIfReachedZero) {
-                    stacks.remove(otherStack.getItem(), otherStack);
-                }
+        ItemStack otherStack = stacks.get(new ItemStackKey(stack));
 
-                return success;
+        if (otherStack != null && otherStack.stackSize > 0) {
+            ItemStack removed = ItemHandlerHelper.copyStackWithSize(otherStack, Math.min(size, otherStack.stackSize));
+            this.removeTracker.add(removed);
+            otherStack = own(otherStack);
+            otherStack.stackSize -= size;
+            boolean success = otherStack.stackSize >= 0;
+
+            if (otherStack.stackSize <= 0 && removeIfReachedZero) {
+                removeStack(otherStack);
             }
+
+            return success;
         }
 
         return false;
     }
 
+    private void removeStack(ItemStack stack) {
+        ItemStackKey key = new ItemStackKey(stack);
+
+        stacks.remove(key);
+        unindex(stack);
+        owned.remove(stack);
+        removeId(key);
+    }
+
+    private void removeId(ItemStackKey key) {
+        Long id = ids.remove(key);
+
+        if (id != null) {
+            keys.remove(id);
+            removedIds.put(key, id);
+        }
+    }
+
+    /**
+     * Makes sure this list can modify a stack without affecting other lists.
+     *
+     * @param stack the stack in this list
+     * @return the stack itself if this list owns it, otherwise a copy that replaced it
+     */
+    private ItemStack own(ItemStack stack) {
+        if (owned.contains(stack)) {
+            return stack;
+        }
+
+        ItemStack newStack = stack.copy();
+        // Stacks in this list have canonical tags, which can be shared as they aren't modified
+        newStack.setTagCompound(stack.getTagCompound());
+
+        stacks.put(new ItemStackKey(newStack), newStack);
+        unindex(stack);
+        index(newStack);
+        owned.add(newStack);
+
+        return newStack;
+    }
+
+    private void index(ItemStack stack) {
+        stacksByItem.put(stack.getItem(), stack);
+
+        for (int oreId : Comparer.getOreIds(stack)) {
+            stacksByOreId.put(oreId, stack);
+        }
+    }
+
+    private void unindex(ItemStack stack) {
+        stacksByItem.remove(stack.getItem(), stack);
+
+        for (int oreId : Comparer.getOreIds(stack)) {
+            stacksByOreId.remove(oreId, stack);
+        }
+    }
+
     @Override
     public void undo() {
         removeTracker.forEach(this::add);
@@ -84,8 +174,35 @@ public class ItemStackList implements IItemStackList {
     @Override
     @Nullable
     public ItemStack get(@Nonnull ItemStack stack, int flags) {
-        // When the oredict flag is set all stacks need to be checked not just the ones matching the item
-        for (ItemStack otherStack : (flags & IComparer.COMPARE_OREDICT) == IComparer.COMPARE_OREDICT ? stacks.values() : stacks.get(stack.getItem())) {
+        if ((flags & COMPARE_EXACT) == COMPARE_EXACT && (flags & IComparer.COMPARE_OREDICT) != IComparer.COMPARE_OREDICT) {
+            ItemStack otherStack = stacks.get(new ItemStackKey(stack));
+
+            if (otherStack != null && otherStack.stackSize > 0 && API.instance().getComparer().isEqual(otherStack, stack, flags)) {
+                return otherStack;
+            }
+
+            return null;
+        }
+
+        ItemStack otherStack = get(stacksByItem.get(stack.getItem()), stack, flags);
+
+        if (otherStack == null && (flags & IComparer.COMPARE_OREDICT) == IComparer.COMPARE_OREDICT) {
+            // Stacks with a different item can only match when they share an ore id
+            for (int oreId : Comparer.getOreIds(stack)) {
+                otherStack = get(stacksByOreId.get(oreId), stack, flags);
+
+                if (otherStack != null) {
+                    break;
+                }
+            }
+        }
+
+        return otherStack;
+    }
+
+    @Nullable
+    private ItemStack get(Collection<ItemStack> candidates, ItemStack stack, int flags) {
+        for (ItemStack otherStack : candidates) {
             if (otherStack.stackSize > 0 && API.instance().getComparer().isEqual(otherStack, stack, flags)) {
                 return otherStack;
             }
@@ -96,28 +213,57 @@ public class ItemStackList implements IItemStackList {
 
     @Override
     @Nullable
-    public ItemStack get(int hash) {
-        for (ItemStack stack : this.stacks.values()) {
-            if (API.instance().getItemStackHashCode(stack) == hash) {
-                return stack;
-            }
+    public ItemStack get(long id) {
+        ItemStackKey key = keys.get(id);
+
+        return key != null ? stacks.get(key) : null;
+    }
+
+    @Override
+    public long getId(@Nonnull ItemStack stack) {
+        ItemStackKey key = new ItemStackKey(stack);
+
+        Long id = ids.get(key);
+
+        if (id == null) {
+            id = removedIds.get(key);
         }
 
-        return null;
+        return id != null ? id : -1;
+    }
+
+    @Override
+    public void releaseIds() {
+        removedIds.clear();
     }
 
     @Override
     public void clear() {
         stacks.clear();
+        stacksByItem.clear();
+        stacksByOreId.clear();
+        owned.clear();
+
+        removedIds.putAll(ids);
+        ids.clear();
+        keys.clear();
     }
 
     @Override
     public void clean() {
-        List<ItemStack> toRemove = stacks.values().stream()
-            .filter(stack -> stack.stackSize <= 0)
-            .collect(Collectors.toList());
+        Iterator<ItemStack> it = stacks.values().iterator();
+
+        while (it.hasNext()) {
+            ItemStack stack = it.next();
 
-        toRemove.forEach(stack -> stacks.remove(stack.getItem(), stack));
+            if (stack.stackSize <= 0) {
+                it.remove();
+
+                unindex(stack);
+                owned.remove(stack);
+                removeId(new ItemStackKey(stack));
+            }
+        }
     }
 
     @Override
@@ -136,8 +282,16 @@ public class ItemStackList implements IItemStackList {
     public IItemStackList copy() {
         ItemStackList list = new ItemStackList();
 
-        for (ItemStack stack : stacks.values()) {
-            list.stacks.put(stack.getItem(), stack.copy());
+        // The stacks are shared, both lists copy a stack before they modify it, see own()
+        list.stacks.putAll(stacks);
+        list.stacksByItem.putAll(stacksByItem);
+        list.stacksByOreId.putAll(stacksByOreId);
+        list.ids.putAll(ids);
+        list.keys.putAll(keys);
+        list.removedIds.putAll(removedIds);
+
+        if (!owned.isEmpty()) {
+            owned.clear();
         }
 
         return list;
@@ -145,6 +299,6 @@ public class ItemStackList implements IItemStackList {
 
     @Override
     public String toString() {
-        return stacks.toString();
+        return stacks.values().toString();
     }
 }
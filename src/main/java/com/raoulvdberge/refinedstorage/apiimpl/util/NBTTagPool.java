@@ -0,0 +1,112 @@
+package com.raoulvdberge.refinedstorage.apiimpl.util;
+
+import com.google.common.collect.MapMaker;
+import com.raoulvdberge.refinedstorage.RS;
+import net.minecraft.nbt.NBTTagCompound;
+
+import javax.annotation.Nullable;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Canonical instances of {@link NBTTagCompound}s, so equal tags that are stored in the network share one instance.
+ * Canonical tags remember their hash code, and two different canonical tags are never equal.
+ * <p>
+ * Canonical tags may not be modified, copy them first. Stacks that leave a storage or a stack list get a copy of the tag,
+ * but the stacks returned by lookups like {@link com.raoulvdberge.refinedstorage.api.util.IItemStackList#getStacks()} are the stored ones.
+ * With the debugNBTTagPool config option every canonical tag is checked against its hash code when it's used.
+ */
+public final class NBTTagPool {
+    // Weak so tags that are no longer used anywhere can be collected
+    private static final Map<NBTTagCompound, WeakReference<NBTTagCompound>> TAGS = new WeakHashMap<>();
+    // Weak keys of Guava maps are compared on identity, so only the canonical instances are in here
+    private static final Map<NBTTagCompound, Integer> HASHES = new MapMaker().weakKeys().makeMap();
+
+    private NBTTagPool() {
+    }
+
+    /**
+     * @param tag the tag, isn't modified or kept
+     * @return the canonical instance of the tag, or null if the tag is null
+     */
+    @Nullable
+    public static NBTTagCompound intern(@Nullable NBTTagCompound tag) {
+        if (tag == null || HASHES.containsKey(tag)) {
+            return tag;
+        }
+
+        synchronized (TAGS) {
+            WeakReference<NBTTagCompound> reference = TAGS.get(tag);
+
+            NBTTagCompound canonical = reference != null ? reference.get() : null;
+
+            if (canonical == null) {
+                canonical = tag.copy();
+
+                HASHES.put(canonical, canonical.hashCode());
+                TAGS.put(canonical, new WeakReference<>(canonical));
+            }
+
+            return canonical;
+        }
+    }
+
+    /**
+     * @param tag the tag
+     * @return true if the tag is a canonical instance, false otherwise
+     */
+    public static boolean isCanonical(@Nullable NBTTagCompound tag) {
+        return tag != null && HASHES.containsKey(tag);
+    }
+
+    /**
+     * @param tag the tag
+     * @return the hash code of the tag, which is only calculated if the tag isn't a canonical instance, 0 if the tag is null
+     */
+    public static int hashCode(@Nullable NBTTagCompound tag) {
+        if (tag == null) {
+            return 0;
+        }
+
+        Integer hash = HASHES.get(tag);
+
+        if (hash == null) {
+            return tag.hashCode();
+        }
+
+        check(tag, hash);
+
+        return hash;
+    }
+
+    /**
+     * @param left  the left tag
+     * @param right the right tag
+     * @return true if the tags are equal, without walking them if both are canonical instances
+     */
+    public static boolean isEqual(@Nullable NBTTagCompound left, @Nullable NBTTagCompound right) {
+        if (left == right) {
+            return true;
+        }
+
+        if (left == null || right == null) {
+            return false;
+        }
+
+        if (isCanonical(left) && isCanonical(right)) {
+            check(left, HASHES.get(left));
+            check(right, HASHES.get(right));
+
+            return false;
+        }
+
+        return left.equals(right);
+    }
+
+    private static void check(NBTTagCompound tag, Integer hash) {
+        if (RS.INSTANCE.config.debugNBTTagPool && hash != null && tag.hashCode() != hash) {
+            throw new IllegalStateException("A shared NBT tag of a stored item was modified, stacks from storages and stack lists may not be modified: " + tag);
+        }
+    }
+}
@@ -99,6 +99,18 @@ public abstract class BlockBase extends Block {
         return false;
     }
 
+    @Override
+    @SuppressWarnings("deprecation")
+    public void neighborChanged(IBlockState state, World world, BlockPos pos, Block block) {
+        super.neighborChanged(state, world, pos, block);
+
+        TileEntity tile = world.getTileEntity(pos);
+
+        if (tile instanceof TileBase) {
+            ((TileBase) tile).onNeighborChanged();
+        }
+    }
+
     @Override
     public void breakBlock(World world, BlockPos pos, IBlockState state) {
         TileEntity tile = world.getTileEntity(pos);
@@ -10,6 +10,7 @@ import com.raoulvdberge.refinedstorage.tile.TileNode;
 import mcmultipart.block.BlockCoverable;
 import mcmultipart.block.BlockMultipartContainer;
 import mcmultipart.raytrace.RayTraceUtils;
+import net.minecraft.block.Block;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.properties.PropertyBool;
 import net.minecraft.block.properties.PropertyDirection;
@@ -288,6 +289,18 @@ public class BlockCable extends BlockCoverable {
         }
     }
 
+    @Override
+    @SuppressWarnings("deprecation")
+    public void neighborChanged(IBlockState state, World world, BlockPos pos, Block block) {
+        super.neighborChanged(state, world, pos, block);
+
+        TileEntity tile = world.getTileEntity(pos);
+
+        if (tile instanceof TileBase) {
+            ((TileBase) tile).onNeighborChanged();
+        }
+    }
+
     @Override
     public void breakBlock(World world, BlockPos pos, IBlockState state) {
         INetworkMaster network = null;
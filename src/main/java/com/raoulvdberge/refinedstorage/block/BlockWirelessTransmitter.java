@@ -46,6 +46,8 @@ public class BlockWirelessTransmitter extends BlockNode {
     @Override
     @SuppressWarnings("deprecation")
     public void neighborChanged(IBlockState state, World world, BlockPos pos, Block block) {
+        super.neighborChanged(state, world, pos, block);
+
         if (!canPlaceBlockAt(world, pos) && world.getBlockState(pos).getBlock() == this) {
             dropBlockAsItem(world, pos, state, 0);
 
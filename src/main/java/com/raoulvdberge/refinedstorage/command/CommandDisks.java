@@ -0,0 +1,69 @@
+package com.raoulvdberge.refinedstorage.command;
+
+import com.raoulvdberge.refinedstorage.apiimpl.storage.StorageDiskData;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentTranslation;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shows and removes the contents of storage disks that were not seen for a number of days, see {@link StorageDiskData}.
+ */
+public class CommandDisks extends CommandBase {
+    @Override
+    public String getCommandName() {
+        return "rsdisks";
+    }
+
+    @Override
+    public String getCommandUsage(ICommandSender sender) {
+        return "commands.refinedstorage:disks.usage";
+    }
+
+    @Override
+    public int getRequiredPermissionLevel() {
+        // Pruning removes the contents of disks that might still be in a chest, so it's for the owner of the server
+        return 4;
+    }
+
+    @Override
+    public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+        if (args.length != 2) {
+            throw new WrongUsageException(getCommandUsage(sender));
+        }
+
+        int days = parseInt(args[1], 1);
+
+        long time = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days);
+
+        StorageDiskData data = StorageDiskData.get(sender.getEntityWorld());
+
+        switch (args[0]) {
+            case "info":
+                sender.addChatMessage(new TextComponentTranslation("commands.refinedstorage:disks.info", data.getDiskCount(), data.countUnseenSince(time), days));
+                break;
+            case "prune":
+                sender.addChatMessage(new TextComponentTranslation("commands.refinedstorage:disks.pruned", data.prune(time), days));
+                break;
+            default:
+                throw new WrongUsageException(getCommandUsage(sender));
+        }
+    }
+
+    @Override
+    public List<String> getTabCompletionOptions(MinecraftServer server, ICommandSender sender, String[] args, @Nullable BlockPos pos) {
+        if (args.length == 1) {
+            return getListOfStringsMatchingLastWord(args, "info", "prune");
+        }
+
+        return Collections.emptyList();
+    }
+}
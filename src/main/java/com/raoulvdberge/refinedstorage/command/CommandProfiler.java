@@ -0,0 +1,97 @@
+package com.raoulvdberge.refinedstorage.command;
+
+import com.raoulvdberge.refinedstorage.apiimpl.network.NetworkProfiler;
+import com.raoulvdberge.refinedstorage.tile.TileController;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentTranslation;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Starts, stops and shows the profiler of the network of a controller, for servers where the GUI isn't an option.
+ */
+public class CommandProfiler extends CommandBase {
+    @Override
+    public String getCommandName() {
+        return "rsprofiler";
+    }
+
+    @Override
+    public String getCommandUsage(ICommandSender sender) {
+        return "commands.refinedstorage:profiler.usage";
+    }
+
+    @Override
+    public int getRequiredPermissionLevel() {
+        return 2;
+    }
+
+    @Override
+    public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+        if (args.length != 4) {
+            throw new WrongUsageException(getCommandUsage(sender));
+        }
+
+        BlockPos pos = parseBlockPos(sender, args, 1, false);
+
+        TileEntity tile = sender.getEntityWorld().getTileEntity(pos);
+
+        if (!(tile instanceof TileController)) {
+            throw new CommandException("commands.refinedstorage:profiler.not_found", pos.getX(), pos.getY(), pos.getZ());
+        }
+
+        NetworkProfiler profiler = ((TileController) tile).getProfiler();
+
+        switch (args[0]) {
+            case "start":
+                profiler.setEnabled(true);
+
+                sender.addChatMessage(new TextComponentTranslation("commands.refinedstorage:profiler.started", NetworkProfiler.WINDOW));
+                break;
+            case "stop":
+                profiler.setEnabled(false);
+
+                sender.addChatMessage(new TextComponentTranslation("commands.refinedstorage:profiler.stopped"));
+                break;
+            case "show":
+                if (!profiler.isEnabled()) {
+                    throw new CommandException("commands.refinedstorage:profiler.disabled");
+                }
+
+                if (profiler.getResults().isEmpty()) {
+                    sender.addChatMessage(new TextComponentTranslation("misc.refinedstorage:profiler.measuring"));
+                }
+
+                for (NetworkProfiler.Result result : profiler.getResults()) {
+                    sender.addChatMessage(new TextComponentTranslation(
+                        "commands.refinedstorage:profiler.result",
+                        result.getSection(),
+                        String.format("%.3f", result.getTimePerTick() / 1000000F),
+                        String.format("%.1f", result.getCallsPerTick())
+                    ));
+                }
+                break;
+            default:
+                throw new WrongUsageException(getCommandUsage(sender));
+        }
+    }
+
+    @Override
+    public List<String> getTabCompletionOptions(MinecraftServer server, ICommandSender sender, String[] args, @Nullable BlockPos pos) {
+        if (args.length == 1) {
+            return getListOfStringsMatchingLastWord(args, "start", "stop", "show");
+        } else if (args.length > 1 && args.length <= 4) {
+            return getTabCompletionCoordinate(args, 1, pos);
+        }
+
+        return Collections.emptyList();
+    }
+}
@@ -5,6 +5,7 @@ import com.raoulvdberge.refinedstorage.container.slot.*;
 import com.raoulvdberge.refinedstorage.tile.TileBase;
 import com.raoulvdberge.refinedstorage.tile.grid.WirelessGrid;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.inventory.ClickType;
 import net.minecraft.inventory.Container;
 import net.minecraft.inventory.Slot;
@@ -138,6 +139,15 @@ public abstract class ContainerBase extends Container {
         return stackInSlot;
     }
 
+    @Override
+    public void onContainerClosed(EntityPlayer player) {
+        super.onContainerClosed(player);
+
+        if (tile != null && player instanceof EntityPlayerMP) {
+            tile.getDataManager().removeWatcher((EntityPlayerMP) player);
+        }
+    }
+
     @Override
     public boolean canInteractWith(EntityPlayer player) {
         return true;
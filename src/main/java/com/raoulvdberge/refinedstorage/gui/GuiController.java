@@ -1,6 +1,8 @@
 package com.raoulvdberge.refinedstorage.gui;
 
+import com.raoulvdberge.refinedstorage.apiimpl.network.NetworkProfiler;
 import com.raoulvdberge.refinedstorage.container.ContainerController;
+import com.raoulvdberge.refinedstorage.gui.sidebutton.SideButtonControllerProfiler;
 import com.raoulvdberge.refinedstorage.gui.sidebutton.SideButtonRedstoneMode;
 import com.raoulvdberge.refinedstorage.tile.ClientNode;
 import com.raoulvdberge.refinedstorage.tile.TileController;
@@ -11,6 +13,7 @@ import java.util.List;
 
 public class GuiController extends GuiBase {
     private static final int VISIBLE_ROWS = 2;
+    private static final int VISIBLE_PROFILER_ROWS = 8;
 
     private TileController controller;
 
@@ -30,12 +33,15 @@ public class GuiController extends GuiBase {
     @Override
     public void init(int x, int y) {
         addSideButton(new SideButtonRedstoneMode(this, TileController.REDSTONE_MODE));
+        addSideButton(new SideButtonControllerProfiler(this));
     }
 
     @Override
     public void update(int x, int y) {
-        scrollbar.setEnabled(getRows() > VISIBLE_ROWS);
-        scrollbar.setMaxOffset(getRows() - VISIBLE_ROWS);
+        int visibleRows = TileController.PROFILING.getValue() ? VISIBLE_PROFILER_ROWS : VISIBLE_ROWS;
+
+        scrollbar.setEnabled(getRows() > visibleRows);
+        scrollbar.setMaxOffset(getRows() - visibleRows);
     }
 
     @Override
@@ -54,6 +60,18 @@ public class GuiController extends GuiBase {
         drawString(7, 7, t("gui.refinedstorage:controller." + controller.getType().getId()));
         drawString(7, 87, t("container.inventory"));
 
+        if (TileController.PROFILING.getValue()) {
+            drawProfilerResults();
+        } else {
+            drawNodes(mouseX, mouseY);
+        }
+
+        if (inBounds(barX, barY, barWidth, barHeight, mouseX, mouseY)) {
+            drawTooltip(mouseX, mouseY, t("misc.refinedstorage:energy_usage", TileController.ENERGY_USAGE.getValue()) + "\n" + t("misc.refinedstorage:energy_stored", TileController.ENERGY_STORED.getValue(), TileController.ENERGY_CAPACITY.getValue()));
+        }
+    }
+
+    private void drawNodes(int mouseX, int mouseY) {
         int x = 33;
         int y = 26;
 
@@ -99,13 +117,40 @@ public class GuiController extends GuiBase {
         if (nodeHovering != null) {
             drawTooltip(mouseX, mouseY, t("misc.refinedstorage:energy_usage_minimal", nodeHovering.getEnergyUsage()));
         }
+    }
 
-        if (inBounds(barX, barY, barWidth, barHeight, mouseX, mouseY)) {
-            drawTooltip(mouseX, mouseY, t("misc.refinedstorage:energy_usage", TileController.ENERGY_USAGE.getValue()) + "\n" + t("misc.refinedstorage:energy_stored", TileController.ENERGY_STORED.getValue(), TileController.ENERGY_CAPACITY.getValue()));
+    private void drawProfilerResults() {
+        List<NetworkProfiler.Result> results = TileController.PROFILER_RESULTS.getValue();
+
+        float scale = 0.5f;
+
+        GlStateManager.pushMatrix();
+        GlStateManager.scale(scale, scale, 1);
+
+        if (results.isEmpty()) {
+            drawString(calculateOffsetOnScale(33, scale), calculateOffsetOnScale(22, scale), t("misc.refinedstorage:profiler.measuring"));
         }
+
+        int y = 22;
+
+        for (int i = scrollbar.getOffset(); i < scrollbar.getOffset() + VISIBLE_PROFILER_ROWS && i < results.size(); ++i) {
+            NetworkProfiler.Result result = results.get(i);
+
+            drawString(calculateOffsetOnScale(33, scale), calculateOffsetOnScale(y, scale), fontRendererObj.trimStringToWidth(result.getSection(), 136));
+            drawString(calculateOffsetOnScale(104, scale), calculateOffsetOnScale(y, scale), t("misc.refinedstorage:profiler.time", String.format("%.3f", result.getTimePerTick() / 1000000F)));
+            drawString(calculateOffsetOnScale(132, scale), calculateOffsetOnScale(y, scale), String.format("%.1f", result.getCallsPerTick()) + "x");
+
+            y += 7;
+        }
+
+        GlStateManager.popMatrix();
     }
 
     private int getRows() {
+        if (TileController.PROFILING.getValue()) {
+            return TileController.PROFILER_RESULTS.getValue().size();
+        }
+
         return Math.max(0, (int) Math.ceil((float) TileController.NODES.getValue().size() / 2F));
     }
 }
@@ -41,7 +41,7 @@ public class GuiCraftingPreview extends GuiBase {
     private List<ICraftingPreviewElement> stacks;
     private GuiScreen parent;
 
-    private int hash;
+    private long id;
     private int quantity;
 
     private GuiButton startButton;
@@ -49,7 +49,7 @@ public class GuiCraftingPreview extends GuiBase {
 
     private IElementDrawers drawers = new CraftingPreviewElementDrawers();
 
-    public GuiCraftingPreview(GuiScreen parent, List<ICraftingPreviewElement> stacks, int hash, int quantity) {
+    public GuiCraftingPreview(GuiScreen parent, List<ICraftingPreviewElement> stacks, long id, int quantity) {
         super(new Container() {
             @Override
             public boolean canInteractWith(EntityPlayer player) {
@@ -60,7 +60,7 @@ public class GuiCraftingPreview extends GuiBase {
         this.stacks = new ArrayList<>(stacks);
         this.parent = parent;
 
-        this.hash = hash;
+        this.id = id;
         this.quantity = quantity;
 
         this.scrollbar = new Scrollbar(149, 20, 12, 119);
@@ -171,7 +171,7 @@ public class GuiCraftingPreview extends GuiBase {
     }
 
     private void startRequest() {
-        RS.INSTANCE.network.sendToServer(new MessageGridCraftingStart(hash, quantity));
+        RS.INSTANCE.network.sendToServer(new MessageGridCraftingStart(id, quantity));
 
         close();
     }
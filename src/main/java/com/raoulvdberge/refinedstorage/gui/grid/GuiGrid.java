@@ -435,10 +435,10 @@ public class GuiGrid extends GuiBase {
                             flags |= IItemGridHandler.EXTRACT_SINGLE;
                         }
 
-                        RS.INSTANCE.network.sendToServer(new MessageGridItemPull(stack.getHash(), flags));
+                        RS.INSTANCE.network.sendToServer(new MessageGridItemPull(stack.getId(), flags));
                     }
                 } else if (grid.getType() == EnumGridType.FLUID && held == null) {
-                    RS.INSTANCE.network.sendToServer(new MessageGridFluidPull(STACKS.get(slotNumber).getHash(), GuiScreen.isShiftKeyDown()));
+                    RS.INSTANCE.network.sendToServer(new MessageGridFluidPull(((ClientStackFluid) STACKS.get(slotNumber)).getHash(), GuiScreen.isShiftKeyDown()));
                 }
             }
         }
@@ -18,7 +18,6 @@ public class ClientStackFluid implements IClientStack {
         return stack;
     }
 
-    @Override
     public int getHash() {
         return hash;
     }
@@ -14,14 +14,14 @@ import net.minecraftforge.fml.common.network.ByteBufUtils;
 import java.util.List;
 
 public class ClientStackItem implements IClientStack {
-    private int hash;
+    private long id;
     private ItemStack stack;
     private boolean craftable;
 
     public ClientStackItem(ByteBuf buf) {
         stack = new ItemStack(Item.getItemById(buf.readInt()), buf.readInt(), buf.readInt());
         stack.setTagCompound(ByteBufUtils.readTag(buf));
-        hash = buf.readInt();
+        id = buf.readLong();
         craftable = buf.readBoolean();
     }
 
@@ -33,9 +33,8 @@ public class ClientStackItem implements IClientStack {
         return craftable;
     }
 
-    @Override
-    public int getHash() {
-        return hash;
+    public long getId() {
+        return id;
     }
 
     @Override
@@ -96,6 +95,6 @@ public class ClientStackItem implements IClientStack {
 
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof IClientStack && ((ClientStackItem) obj).getHash() == hash;
+        return obj instanceof ClientStackItem && ((ClientStackItem) obj).getId() == id;
     }
 }
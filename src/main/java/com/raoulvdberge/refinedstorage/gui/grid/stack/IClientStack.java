@@ -3,8 +3,6 @@ package com.raoulvdberge.refinedstorage.gui.grid.stack;
 import com.raoulvdberge.refinedstorage.gui.GuiBase;
 
 public interface IClientStack {
-    int getHash();
-
     String getName();
 
     String getModId();
@@ -0,0 +1,31 @@
+package com.raoulvdberge.refinedstorage.gui.sidebutton;
+
+import com.raoulvdberge.refinedstorage.gui.GuiBase;
+import com.raoulvdberge.refinedstorage.tile.TileController;
+import com.raoulvdberge.refinedstorage.tile.data.TileDataManager;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.text.TextFormatting;
+
+public class SideButtonControllerProfiler extends SideButton {
+    private static final ItemStack ICON = new ItemStack(Items.CLOCK);
+
+    public SideButtonControllerProfiler(GuiBase gui) {
+        super(gui);
+    }
+
+    @Override
+    public String getTooltip() {
+        return TextFormatting.YELLOW + GuiBase.t("sidebutton.refinedstorage:controller.profiler") + TextFormatting.RESET + "\n" + GuiBase.t("gui." + (TileController.PROFILING.getValue() ? "yes" : "no"));
+    }
+
+    @Override
+    protected void drawButtonIcon(int x, int y) {
+        gui.drawItem(x, y, ICON);
+    }
+
+    @Override
+    public void actionPerformed() {
+        TileDataManager.setParameter(TileController.PROFILING, !TileController.PROFILING.getValue());
+    }
+}
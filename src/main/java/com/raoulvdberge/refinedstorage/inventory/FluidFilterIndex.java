@@ -0,0 +1,47 @@
+package com.raoulvdberge.refinedstorage.inventory;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.raoulvdberge.refinedstorage.apiimpl.API;
+import net.minecraftforge.fluids.Fluid;
+import net.minecraftforge.fluids.FluidStack;
+
+/**
+ * The fluids of a filter inventory indexed on fluid, so a stack can be matched against the filters
+ * without comparing it to every slot.
+ */
+public class FluidFilterIndex {
+    private ListMultimap<Fluid, FluidStack> stacksByFluid = ArrayListMultimap.create();
+
+    public FluidFilterIndex(ItemHandlerFluid filters) {
+        for (int i = 0; i < filters.getSlots(); ++i) {
+            FluidStack slot = filters.getFluidStackInSlot(i);
+
+            if (slot != null) {
+                stacksByFluid.put(slot.getFluid(), slot.copy());
+            }
+        }
+    }
+
+    /**
+     * @return true if there are no filters, false otherwise
+     */
+    public boolean isEmpty() {
+        return stacksByFluid.isEmpty();
+    }
+
+    /**
+     * @param stack   the stack
+     * @param compare the compare flags
+     * @return true if one of the filters matches the stack, false otherwise
+     */
+    public boolean matches(FluidStack stack, int compare) {
+        for (FluidStack filter : stacksByFluid.get(stack.getFluid())) {
+            if (API.instance().getComparer().isEqual(filter, stack, compare)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,76 @@
+package com.raoulvdberge.refinedstorage.inventory;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.raoulvdberge.refinedstorage.api.util.IComparer;
+import com.raoulvdberge.refinedstorage.apiimpl.API;
+import com.raoulvdberge.refinedstorage.apiimpl.util.Comparer;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+
+import java.util.List;
+
+/**
+ * The stacks of a filter inventory indexed on item and ore id, so a stack can be matched against the filters
+ * without comparing it to every slot. Only the filters that can match are compared.
+ */
+public class ItemFilterIndex {
+    private ListMultimap<Item, ItemStack> stacksByItem = ArrayListMultimap.create();
+    private ListMultimap<Integer, ItemStack> stacksByOreId = ArrayListMultimap.create();
+
+    public ItemFilterIndex(IItemHandler filters) {
+        for (int i = 0; i < filters.getSlots(); ++i) {
+            ItemStack slot = filters.getStackInSlot(i);
+
+            if (slot != null) {
+                slot = slot.copy();
+
+                stacksByItem.put(slot.getItem(), slot);
+
+                for (int oreId : Comparer.getOreIds(slot)) {
+                    stacksByOreId.put(oreId, slot);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if there are no filters, false otherwise
+     */
+    public boolean isEmpty() {
+        return stacksByItem.isEmpty();
+    }
+
+    /**
+     * @param stack   the stack
+     * @param compare the compare flags
+     * @return true if one of the filters matches the stack, false otherwise
+     */
+    public boolean matches(ItemStack stack, int compare) {
+        if (matches(stacksByItem.get(stack.getItem()), stack, compare)) {
+            return true;
+        }
+
+        // Filters with a different item can only match when they share an ore id
+        if ((compare & IComparer.COMPARE_OREDICT) == IComparer.COMPARE_OREDICT) {
+            for (int oreId : Comparer.getOreIds(stack)) {
+                if (matches(stacksByOreId.get(oreId), stack, compare)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean matches(List<ItemStack> filters, ItemStack stack, int compare) {
+        for (ItemStack filter : filters) {
+            if (API.instance().getComparer().isEqual(filter, stack, compare)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -4,11 +4,17 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraftforge.items.ItemStackHandler;
 
+import javax.annotation.Nullable;
+
 public class ItemHandlerBasic extends ItemStackHandler {
-    private TileEntity tile;
+    protected TileEntity tile;
 
     protected IItemValidator[] validators;
 
+    // Built on first use when this inventory is used as a filter, and dropped when the contents change
+    @Nullable
+    private ItemFilterIndex filterIndex;
+
     public ItemHandlerBasic(int size, TileEntity tile, IItemValidator... validators) {
         super(size);
 
@@ -39,11 +45,21 @@ public class ItemHandlerBasic extends ItemStackHandler {
     protected void onContentsChanged(int slot) {
         super.onContentsChanged(slot);
 
+        filterIndex = null;
+
         if (tile != null) {
             tile.markDirty();
         }
     }
 
+    public ItemFilterIndex getFilterIndex() {
+        if (filterIndex == null) {
+            filterIndex = new ItemFilterIndex(this);
+        }
+
+        return filterIndex;
+    }
+
     public ItemStack extractItemInternal(int slot, int amount, boolean simulate) {
         return super.extractItem(slot, amount, simulate);
     }
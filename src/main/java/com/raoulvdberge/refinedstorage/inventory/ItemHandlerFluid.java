@@ -6,8 +6,12 @@ import net.minecraft.tileentity.TileEntity;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.items.ItemHandlerHelper;
 
+import javax.annotation.Nullable;
+
 public class ItemHandlerFluid extends ItemHandlerBasic {
     private FluidStack[] fluids;
+    @Nullable
+    private FluidFilterIndex fluidFilterIndex;
 
     public ItemHandlerFluid(int size, TileEntity tile) {
         super(size, tile, s -> RSUtils.getFluidFromStack(ItemHandlerHelper.copyStackWithSize(s, 1), true) != null);
@@ -26,6 +30,16 @@ public class ItemHandlerFluid extends ItemHandlerBasic {
         } else {
             fluids[slot] = RSUtils.getFluidFromStack(ItemHandlerHelper.copyStackWithSize(stack, 1), true);
         }
+
+        fluidFilterIndex = null;
+    }
+
+    public FluidFilterIndex getFluidFilterIndex() {
+        if (fluidFilterIndex == null) {
+            fluidFilterIndex = new FluidFilterIndex(this);
+        }
+
+        return fluidFilterIndex;
     }
 
     public FluidStack getFluidStackInSlot(int slot) {
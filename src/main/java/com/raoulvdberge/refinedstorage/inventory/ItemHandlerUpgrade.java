@@ -1,6 +1,7 @@
 package com.raoulvdberge.refinedstorage.inventory;
 
 import com.raoulvdberge.refinedstorage.RSItems;
+import com.raoulvdberge.refinedstorage.api.network.INetworkNode;
 import com.raoulvdberge.refinedstorage.item.ItemUpgrade;
 import net.minecraft.tileentity.TileEntity;
 
@@ -13,6 +14,16 @@ public class ItemHandlerUpgrade extends ItemHandlerBasic {
         }
     }
 
+    @Override
+    protected void onContentsChanged(int slot) {
+        super.onContentsChanged(slot);
+
+        // Upgrades use energy
+        if (tile instanceof INetworkNode && ((INetworkNode) tile).getNetwork() != null) {
+            ((INetworkNode) tile).getNetwork().markEnergyUsageDirty();
+        }
+    }
+
     public int getSpeed() {
         return getSpeed(9, 2);
     }
@@ -1,6 +1,7 @@
 package com.raoulvdberge.refinedstorage.item;
 
 import com.raoulvdberge.refinedstorage.RSItems;
+import com.raoulvdberge.refinedstorage.apiimpl.storage.StorageDiskData;
 import com.raoulvdberge.refinedstorage.apiimpl.storage.fluid.FluidStorageNBT;
 import com.raoulvdberge.refinedstorage.block.EnumFluidStorageType;
 import net.minecraft.client.resources.I18n;
@@ -20,6 +21,7 @@ import net.minecraftforge.fluids.FluidRegistry;
 import net.minecraftforge.fluids.FluidStack;
 
 import java.util.List;
+import java.util.UUID;
 
 public class ItemFluidStorageDisk extends ItemBase {
     public static final int TYPE_64K = 0;
@@ -29,6 +31,9 @@ public class ItemFluidStorageDisk extends ItemBase {
     public static final int TYPE_CREATIVE = 4;
     public static final int TYPE_DEBUG = 5;
 
+    // How often a disk in the inventory of a player is marked as seen, in ticks
+    private static final int SEEN_INTERVAL = 1200;
+
     private NBTTagCompound debugDiskTag;
 
     public ItemFluidStorageDisk() {
@@ -77,6 +82,9 @@ public class ItemFluidStorageDisk extends ItemBase {
             } else {
                 FluidStorageNBT.createStackWithNBT(stack);
             }
+        } else if (!world.isRemote && world.getTotalWorldTime() % SEEN_INTERVAL == 0 && StorageDiskData.hasId(stack)) {
+            // A disk that a player carries around still exists, see StorageDiskData
+            StorageDiskData.get(world).see(StorageDiskData.getId(stack));
         }
     }
 
@@ -89,6 +97,12 @@ public class ItemFluidStorageDisk extends ItemBase {
                 InventoryHelper.spawnItemStack(world, player.getPosition().getX(), player.getPosition().getY(), player.getPosition().getZ(), storagePart);
             }
 
+            UUID id = StorageDiskData.getId(disk);
+
+            if (id != null) {
+                StorageDiskData.get(world).remove(id);
+            }
+
             return new ActionResult<>(EnumActionResult.SUCCESS, new ItemStack(RSItems.STORAGE_HOUSING));
         }
 
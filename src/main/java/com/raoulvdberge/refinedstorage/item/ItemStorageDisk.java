@@ -1,6 +1,7 @@
 package com.raoulvdberge.refinedstorage.item;
 
 import com.raoulvdberge.refinedstorage.RSItems;
+import com.raoulvdberge.refinedstorage.apiimpl.storage.StorageDiskData;
 import com.raoulvdberge.refinedstorage.apiimpl.storage.item.ItemStorageNBT;
 import com.raoulvdberge.refinedstorage.block.EnumItemStorageType;
 import net.minecraft.client.resources.I18n;
@@ -19,6 +20,7 @@ import net.minecraft.world.World;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.UUID;
 
 public class ItemStorageDisk extends ItemBase {
     public static final int TYPE_1K = 0;
@@ -28,6 +30,9 @@ public class ItemStorageDisk extends ItemBase {
     public static final int TYPE_CREATIVE = 4;
     public static final int TYPE_DEBUG = 5;
 
+    // How often a disk in the inventory of a player is marked as seen, in ticks
+    private static final int SEEN_INTERVAL = 1200;
+
     private NBTTagCompound debugDiskTag;
 
     public ItemStorageDisk() {
@@ -55,6 +60,9 @@ public class ItemStorageDisk extends ItemBase {
             } else {
                 ItemStorageNBT.createStackWithNBT(stack);
             }
+        } else if (!world.isRemote && world.getTotalWorldTime() % SEEN_INTERVAL == 0 && StorageDiskData.hasId(stack)) {
+            // A disk that a player carries around still exists, see StorageDiskData
+            StorageDiskData.get(world).see(StorageDiskData.getId(stack));
         }
     }
 
@@ -113,6 +121,12 @@ public class ItemStorageDisk extends ItemBase {
                 InventoryHelper.spawnItemStack(world, player.getPosition().getX(), player.getPosition().getY(), player.getPosition().getZ(), storagePart);
             }
 
+            UUID id = StorageDiskData.getId(disk);
+
+            if (id != null) {
+                StorageDiskData.get(world).remove(id);
+            }
+
             return new ActionResult<>(EnumActionResult.SUCCESS, new ItemStack(RSItems.STORAGE_HOUSING));
         }
 
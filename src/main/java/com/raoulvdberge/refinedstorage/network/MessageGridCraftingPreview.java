@@ -7,26 +7,26 @@ import net.minecraft.inventory.Container;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 
 public class MessageGridCraftingPreview extends MessageHandlerPlayerToServer<MessageGridCraftingPreview> implements IMessage {
-    private int hash;
+    private long id;
     private int quantity;
 
     public MessageGridCraftingPreview() {
     }
 
-    public MessageGridCraftingPreview(int hash, int quantity) {
-        this.hash = hash;
+    public MessageGridCraftingPreview(long id, int quantity) {
+        this.id = id;
         this.quantity = quantity;
     }
 
     @Override
     public void fromBytes(ByteBuf buf) {
-        hash = buf.readInt();
+        id = buf.readLong();
         quantity = buf.readInt();
     }
 
     @Override
     public void toBytes(ByteBuf buf) {
-        buf.writeInt(hash);
+        buf.writeLong(id);
         buf.writeInt(quantity);
     }
 
@@ -35,7 +35,7 @@ public class MessageGridCraftingPreview extends MessageHandlerPlayerToServer<Mes
         Container container = player.openContainer;
 
         if (container instanceof ContainerGrid) {
-            ((ContainerGrid) container).getGrid().getItemHandler().onCraftingPreviewRequested(player, message.hash, message.quantity);
+            ((ContainerGrid) container).getGrid().getItemHandler().onCraftingPreviewRequested(player, message.id, message.quantity);
         }
     }
 }
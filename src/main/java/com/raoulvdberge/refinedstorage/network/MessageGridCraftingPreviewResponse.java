@@ -14,21 +14,21 @@ import java.util.List;
 
 public class MessageGridCraftingPreviewResponse implements IMessage, IMessageHandler<MessageGridCraftingPreviewResponse, IMessage> {
     public List<ICraftingPreviewElement> stacks;
-    public int hash;
+    public long id;
     public int quantity;
 
     public MessageGridCraftingPreviewResponse() {
     }
 
-    public MessageGridCraftingPreviewResponse(List<ICraftingPreviewElement> stacks, int hash, int quantity) {
+    public MessageGridCraftingPreviewResponse(List<ICraftingPreviewElement> stacks, long id, int quantity) {
         this.stacks = stacks;
-        this.hash = hash;
+        this.id = id;
         this.quantity = quantity;
     }
 
     @Override
     public void fromBytes(ByteBuf buf) {
-        this.hash = buf.readInt();
+        this.id = buf.readLong();
         this.quantity = buf.readInt();
 
         this.stacks = new LinkedList<>();
@@ -42,7 +42,7 @@ public class MessageGridCraftingPreviewResponse implements IMessage, IMessageHan
 
     @Override
     public void toBytes(ByteBuf buf) {
-        buf.writeInt(this.hash);
+        buf.writeLong(this.id);
         buf.writeInt(this.quantity);
 
         buf.writeInt(stacks.size());
@@ -8,26 +8,26 @@ import net.minecraft.inventory.Container;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 
 public class MessageGridCraftingStart extends MessageHandlerPlayerToServer<MessageGridCraftingStart> implements IMessage {
-    private int hash;
+    private long id;
     private int quantity;
 
     public MessageGridCraftingStart() {
     }
 
-    public MessageGridCraftingStart(int hash, int quantity) {
-        this.hash = hash;
+    public MessageGridCraftingStart(long id, int quantity) {
+        this.id = id;
         this.quantity = quantity;
     }
 
     @Override
     public void fromBytes(ByteBuf buf) {
-        hash = buf.readInt();
+        id = buf.readLong();
         quantity = buf.readInt();
     }
 
     @Override
     public void toBytes(ByteBuf buf) {
-        buf.writeInt(hash);
+        buf.writeLong(id);
         buf.writeInt(quantity);
     }
 
@@ -39,7 +39,7 @@ public class MessageGridCraftingStart extends MessageHandlerPlayerToServer<Messa
             IItemGridHandler handler = ((ContainerGrid) container).getGrid().getItemHandler();
 
             if (handler != null) {
-                handler.onCraftingRequested(message.hash, message.quantity);
+                handler.onCraftingRequested(message.id, message.quantity);
             }
         }
     }
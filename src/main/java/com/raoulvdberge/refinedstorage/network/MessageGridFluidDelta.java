@@ -9,54 +9,77 @@ import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
 import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public class MessageGridFluidDelta implements IMessage, IMessageHandler<MessageGridFluidDelta, IMessage> {
-    private FluidStack stack;
-    private int delta;
+    private List<Pair<FluidStack, Integer>> deltas;
 
-    private ClientStackFluid clientStack;
+    private List<Pair<ClientStackFluid, Integer>> clientDeltas;
 
     public MessageGridFluidDelta() {
     }
 
     public MessageGridFluidDelta(FluidStack stack, int delta) {
-        this.stack = stack;
-        this.delta = delta;
+        this(Collections.singletonList(Pair.of(stack, delta)));
+    }
+
+    public MessageGridFluidDelta(List<Pair<FluidStack, Integer>> deltas) {
+        this.deltas = deltas;
     }
 
     @Override
     public void fromBytes(ByteBuf buf) {
-        clientStack = new ClientStackFluid(RSUtils.readFluidStack(buf));
-        delta = buf.readInt();
+        int size = buf.readInt();
+
+        clientDeltas = new ArrayList<>(size);
+
+        for (int i = 0; i < size; ++i) {
+            ClientStackFluid clientStack = new ClientStackFluid(RSUtils.readFluidStack(buf));
+
+            clientDeltas.add(Pair.of(clientStack, buf.readInt()));
+        }
     }
 
     @Override
     public void toBytes(ByteBuf buf) {
-        RSUtils.writeFluidStack(buf, stack);
-        buf.writeInt(delta);
+        buf.writeInt(deltas.size());
+
+        for (Pair<FluidStack, Integer> delta : deltas) {
+            RSUtils.writeFluidStack(buf, delta.getLeft());
+            buf.writeInt(delta.getRight());
+        }
     }
 
     @Override
     public IMessage onMessage(MessageGridFluidDelta message, MessageContext ctx) {
-        Fluid fluid = message.clientStack.getStack().getFluid();
+        for (Pair<ClientStackFluid, Integer> delta : message.clientDeltas) {
+            onDelta(delta.getLeft(), delta.getRight());
+        }
+
+        GuiGrid.markForSorting();
+
+        return null;
+    }
+
+    private void onDelta(ClientStackFluid clientStack, int delta) {
+        Fluid fluid = clientStack.getStack().getFluid();
 
         for (ClientStackFluid stack : GuiGrid.FLUIDS.get(fluid)) {
-            if (stack.equals(message.clientStack)) {
-                if (stack.getStack().amount + message.delta == 0) {
+            if (stack.equals(clientStack)) {
+                if (stack.getStack().amount + delta == 0) {
                     GuiGrid.FLUIDS.remove(fluid, stack);
                 } else {
-                    stack.getStack().amount += message.delta;
+                    stack.getStack().amount += delta;
                 }
 
-                GuiGrid.markForSorting();
-
-                return null;
+                return;
             }
         }
 
-        GuiGrid.FLUIDS.put(fluid, message.clientStack);
-        GuiGrid.markForSorting();
-
-        return null;
+        GuiGrid.FLUIDS.put(fluid, clientStack);
     }
 }
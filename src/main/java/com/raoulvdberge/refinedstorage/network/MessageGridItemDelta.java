@@ -10,56 +10,79 @@ import net.minecraft.item.ItemStack;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
 import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public class MessageGridItemDelta implements IMessage, IMessageHandler<MessageGridItemDelta, IMessage> {
     private INetworkMaster network;
-    private ItemStack stack;
-    private int delta;
+    private List<Pair<ItemStack, Integer>> deltas;
 
-    private ClientStackItem clientStack;
+    private List<Pair<ClientStackItem, Integer>> clientDeltas;
 
     public MessageGridItemDelta() {
     }
 
     public MessageGridItemDelta(INetworkMaster network, ItemStack stack, int delta) {
+        this(network, Collections.singletonList(Pair.of(stack, delta)));
+    }
+
+    public MessageGridItemDelta(INetworkMaster network, List<Pair<ItemStack, Integer>> deltas) {
         this.network = network;
-        this.stack = stack;
-        this.delta = delta;
+        this.deltas = deltas;
     }
 
     @Override
     public void fromBytes(ByteBuf buf) {
-        clientStack = new ClientStackItem(buf);
-        delta = buf.readInt();
+        int size = buf.readInt();
+
+        clientDeltas = new ArrayList<>(size);
+
+        for (int i = 0; i < size; ++i) {
+            ClientStackItem clientStack = new ClientStackItem(buf);
+
+            clientDeltas.add(Pair.of(clientStack, buf.readInt()));
+        }
     }
 
     @Override
     public void toBytes(ByteBuf buf) {
-        RSUtils.writeItemStack(buf, network, stack);
-        buf.writeInt(delta);
+        buf.writeInt(deltas.size());
+
+        for (Pair<ItemStack, Integer> delta : deltas) {
+            RSUtils.writeItemStack(buf, network, delta.getLeft());
+            buf.writeInt(delta.getRight());
+        }
     }
 
     @Override
     public IMessage onMessage(MessageGridItemDelta message, MessageContext ctx) {
-        Item item = message.clientStack.getStack().getItem();
+        for (Pair<ClientStackItem, Integer> delta : message.clientDeltas) {
+            onDelta(delta.getLeft(), delta.getRight());
+        }
+
+        GuiGrid.markForSorting();
+
+        return null;
+    }
+
+    private void onDelta(ClientStackItem clientStack, int delta) {
+        Item item = clientStack.getStack().getItem();
 
         for (ClientStackItem stack : GuiGrid.ITEMS.get(item)) {
-            if (stack.equals(message.clientStack)) {
-                if (stack.getStack().stackSize + message.delta == 0 && !message.clientStack.isCraftable()) {
+            if (stack.equals(clientStack)) {
+                if (stack.getStack().stackSize + delta == 0 && !clientStack.isCraftable()) {
                     GuiGrid.ITEMS.remove(item, stack);
                 } else {
-                    stack.getStack().stackSize += message.delta;
+                    stack.getStack().stackSize += delta;
                 }
 
-                GuiGrid.markForSorting();
-
-                return null;
+                return;
             }
         }
 
-        GuiGrid.ITEMS.put(item, message.clientStack);
-        GuiGrid.markForSorting();
-
-        return null;
+        GuiGrid.ITEMS.put(item, clientStack);
     }
 }
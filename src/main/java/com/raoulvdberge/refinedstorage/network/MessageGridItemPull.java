@@ -8,26 +8,26 @@ import net.minecraft.inventory.Container;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 
 public class MessageGridItemPull extends MessageHandlerPlayerToServer<MessageGridItemPull> implements IMessage {
-    private int hash;
+    private long id;
     private int flags;
 
     public MessageGridItemPull() {
     }
 
-    public MessageGridItemPull(int hash, int flags) {
-        this.hash = hash;
+    public MessageGridItemPull(long id, int flags) {
+        this.id = id;
         this.flags = flags;
     }
 
     @Override
     public void fromBytes(ByteBuf buf) {
-        hash = buf.readInt();
+        id = buf.readLong();
         flags = buf.readInt();
     }
 
     @Override
     public void toBytes(ByteBuf buf) {
-        buf.writeInt(hash);
+        buf.writeLong(id);
         buf.writeInt(flags);
     }
 
@@ -39,7 +39,7 @@ public class MessageGridItemPull extends MessageHandlerPlayerToServer<MessageGri
             IItemGridHandler handler = ((ContainerGrid) container).getGrid().getItemHandler();
 
             if (handler != null) {
-                handler.onExtract(message.hash, message.flags, player);
+                handler.onExtract(message.id, message.flags, player);
             }
         }
     }
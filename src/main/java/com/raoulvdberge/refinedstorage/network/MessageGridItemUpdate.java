@@ -2,6 +2,7 @@ package com.raoulvdberge.refinedstorage.network;
 
 import com.raoulvdberge.refinedstorage.RSUtils;
 import com.raoulvdberge.refinedstorage.api.network.INetworkMaster;
+import com.raoulvdberge.refinedstorage.apiimpl.network.NetworkMetrics;
 import com.raoulvdberge.refinedstorage.gui.grid.GuiGrid;
 import com.raoulvdberge.refinedstorage.gui.grid.stack.ClientStackItem;
 import io.netty.buffer.ByteBuf;
@@ -15,13 +16,15 @@ import java.util.List;
 
 public class MessageGridItemUpdate implements IMessage, IMessageHandler<MessageGridItemUpdate, IMessage> {
     private INetworkMaster network;
+    private NetworkMetrics metrics;
     private List<ClientStackItem> stacks = new ArrayList<>();
 
     public MessageGridItemUpdate() {
     }
 
-    public MessageGridItemUpdate(INetworkMaster network) {
+    public MessageGridItemUpdate(INetworkMaster network, NetworkMetrics metrics) {
         this.network = network;
+        this.metrics = metrics;
     }
 
     @Override
@@ -35,11 +38,15 @@ public class MessageGridItemUpdate implements IMessage, IMessageHandler<MessageG
 
     @Override
     public void toBytes(ByteBuf buf) {
+        int start = buf.writerIndex();
+
         buf.writeInt(network.getItemStorageCache().getList().getStacks().size());
 
         for (ItemStack stack : network.getItemStorageCache().getList().getStacks()) {
             RSUtils.writeItemStack(buf, network, stack);
         }
+
+        metrics.onGridItemUpdateWritten(buf.writerIndex() - start);
     }
 
     @Override
@@ -9,38 +9,57 @@ import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
 import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
 
+import java.util.List;
+
 public class MessageTileDataParameter implements IMessage, IMessageHandler<MessageTileDataParameter, IMessage> {
     private TileEntity tile;
-    private TileDataParameter parameter;
+    private List<TileDataParameter> parameters;
 
     public MessageTileDataParameter() {
     }
 
-    public MessageTileDataParameter(TileEntity tile, TileDataParameter parameter) {
+    public MessageTileDataParameter(TileEntity tile, List<TileDataParameter> parameters) {
         this.tile = tile;
-        this.parameter = parameter;
+        this.parameters = parameters;
     }
 
     @Override
     public void fromBytes(ByteBuf buf) {
-        int id = buf.readInt();
+        int size = buf.readInt();
+
+        for (int i = 0; i < size; ++i) {
+            int id = buf.readInt();
 
-        TileDataParameter parameter = TileDataManager.getParameter(id);
+            // Every value is prefixed with its length, so values of unknown parameters or values that fail to read can be skipped
+            ByteBuf value = buf.readSlice(buf.readInt());
 
-        if (parameter != null) {
-            try {
-                parameter.setValue(parameter.getSerializer().read(new PacketBuffer(buf)));
-            } catch (Exception e) {
-                // NO OP
+            TileDataParameter parameter = TileDataManager.getParameter(id);
+
+            if (parameter != null) {
+                try {
+                    parameter.setValue(parameter.getSerializer().read(new PacketBuffer(value)));
+                } catch (Exception e) {
+                    // Only this value is lost, the values after it can still be read
+                }
             }
         }
     }
 
     @Override
     public void toBytes(ByteBuf buf) {
-        buf.writeInt(parameter.getId());
+        buf.writeInt(parameters.size());
+
+        for (TileDataParameter parameter : parameters) {
+            buf.writeInt(parameter.getId());
 
-        parameter.getSerializer().write((PacketBuffer) buf, parameter.getValueProducer().getValue(tile));
+            int lengthIndex = buf.writerIndex();
+
+            buf.writeInt(0);
+
+            parameter.getSerializer().write((PacketBuffer) buf, parameter.getValueProducer().getValue(tile));
+
+            buf.setInt(lengthIndex, buf.writerIndex() - lengthIndex - 4);
+        }
     }
 
     @Override
@@ -51,7 +51,7 @@ public class MessageTileDataParameterUpdate extends MessageHandlerPlayerToServer
         if (c instanceof ContainerBase) {
             ITileDataConsumer consumer = message.parameter.getValueConsumer();
 
-            if (consumer != null) {
+            if (consumer != null && consumer.canSetValue(player)) {
                 consumer.setValue(((ContainerBase) c).getTile(), message.value);
             }
         }
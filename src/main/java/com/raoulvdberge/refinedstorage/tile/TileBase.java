@@ -1,5 +1,6 @@
 package com.raoulvdberge.refinedstorage.tile;
 
+import com.raoulvdberge.refinedstorage.RS;
 import com.raoulvdberge.refinedstorage.tile.data.TileDataManager;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.nbt.NBTTagCompound;
@@ -10,6 +11,7 @@ import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import net.minecraftforge.fml.common.FMLLog;
 import net.minecraftforge.items.IItemHandler;
 
 import javax.annotation.Nullable;
@@ -22,6 +24,10 @@ public abstract class TileBase extends TileEntity implements ITickable {
     protected TileDataManager dataManager = new TileDataManager(this);
     protected int ticks = 0;
 
+    // Refreshed after a neighbor changed instead of asking the world every time, see BlockBase#neighborChanged
+    private boolean redstoneSignal;
+    private boolean redstoneSignalDirty = true;
+
     @Override
     public void update() {
         if (!worldObj.isRemote) {
@@ -111,6 +117,27 @@ public abstract class TileBase extends TileEntity implements ITickable {
         return oldState.getBlock() != newState.getBlock();
     }
 
+    public void onNeighborChanged() {
+        redstoneSignalDirty = true;
+    }
+
+    /**
+     * @return whether this block receives a redstone signal
+     */
+    public boolean hasRedstoneSignal() {
+        if (redstoneSignalDirty) {
+            redstoneSignalDirty = false;
+
+            redstoneSignal = worldObj.isBlockPowered(pos);
+        } else if (RS.INSTANCE.config.debugRedstoneCache && redstoneSignal != worldObj.isBlockPowered(pos)) {
+            FMLLog.warning("Cached redstone signal of %s at %s is out of date, it should be %s", getClass().getSimpleName(), pos, !redstoneSignal);
+
+            redstoneSignal = !redstoneSignal;
+        }
+
+        return redstoneSignal;
+    }
+
     public TileEntity getFacingTile() {
         return worldObj.getTileEntity(pos.offset(direction));
     }
@@ -99,7 +99,7 @@ public class TileConstructor extends TileMultipartNode implements IComparable, I
 
     @Override
     public void updateNode() {
-        if (ticks % upgrades.getSpeed(BASE_SPEED, 4) == 0) {
+        if (shouldWork(upgrades.getSpeed(BASE_SPEED, 4))) {
             if (type == IType.ITEMS) {
                 if (block != null) {
                     if (drop && item != null) {
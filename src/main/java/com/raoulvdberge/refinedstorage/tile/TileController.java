@@ -25,7 +25,11 @@ import com.raoulvdberge.refinedstorage.api.storage.item.IItemStorage;
 import com.raoulvdberge.refinedstorage.api.storage.item.IItemStorageCache;
 import com.raoulvdberge.refinedstorage.api.util.IComparer;
 import com.raoulvdberge.refinedstorage.apiimpl.API;
+import com.raoulvdberge.refinedstorage.apiimpl.network.NetworkMetrics;
+import com.raoulvdberge.refinedstorage.apiimpl.network.NetworkMetricsExporter;
 import com.raoulvdberge.refinedstorage.apiimpl.network.NetworkNodeGraph;
+import com.raoulvdberge.refinedstorage.apiimpl.network.NetworkNodeScheduler;
+import com.raoulvdberge.refinedstorage.apiimpl.network.NetworkProfiler;
 import com.raoulvdberge.refinedstorage.apiimpl.network.WirelessGridHandler;
 import com.raoulvdberge.refinedstorage.apiimpl.network.grid.FluidGridHandler;
 import com.raoulvdberge.refinedstorage.apiimpl.network.grid.ItemGridHandler;
@@ -48,6 +52,7 @@ import com.raoulvdberge.refinedstorage.network.MessageGridItemDelta;
 import com.raoulvdberge.refinedstorage.network.MessageGridItemUpdate;
 import com.raoulvdberge.refinedstorage.tile.config.IRedstoneConfigurable;
 import com.raoulvdberge.refinedstorage.tile.config.RedstoneMode;
+import com.raoulvdberge.refinedstorage.tile.data.ITileDataConsumer;
 import com.raoulvdberge.refinedstorage.tile.data.ITileDataProducer;
 import com.raoulvdberge.refinedstorage.tile.data.RSSerializers;
 import com.raoulvdberge.refinedstorage.tile.data.TileDataParameter;
@@ -71,6 +76,7 @@ import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.energy.CapabilityEnergy;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.items.ItemHandlerHelper;
+import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -135,6 +141,31 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
         }
     });
 
+    public static final TileDataParameter<Boolean> PROFILING = new TileDataParameter<>(DataSerializers.BOOLEAN, false, new ITileDataProducer<Boolean, TileController>() {
+        @Override
+        public Boolean getValue(TileController tile) {
+            return tile.profiler.isEnabled();
+        }
+    }, new ITileDataConsumer<Boolean, TileController>() {
+        @Override
+        public void setValue(TileController tile, Boolean value) {
+            tile.profiler.setEnabled(value);
+        }
+
+        @Override
+        public boolean canSetValue(EntityPlayer player) {
+            // Profiling slows the network down, so it takes the same permission as CommandProfiler
+            return player.canCommandSenderUseCommand(2, "rsprofiler");
+        }
+    });
+
+    public static final TileDataParameter<List<NetworkProfiler.Result>> PROFILER_RESULTS = new TileDataParameter<>(RSSerializers.PROFILER_RESULT_SERIALIZER, new ArrayList<>(), new ITileDataProducer<List<NetworkProfiler.Result>, TileController>() {
+        @Override
+        public List<NetworkProfiler.Result> getValue(TileController tile) {
+            return tile.profiler.getResults();
+        }
+    });
+
     public static final String NBT_ENERGY = "Energy";
     public static final String NBT_ENERGY_CAPACITY = "EnergyCapacity";
 
@@ -148,21 +179,18 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
         return (left.getEnergyUsage() > right.getEnergyUsage()) ? -1 : 1;
     };
 
-    private static final Comparator<IStorage> STORAGE_COMPARATOR = (left, right) -> {
-        int compare = Integer.compare(right.getPriority(), left.getPriority());
-
-        return compare != 0 ? compare : Integer.compare(right.getStored(), left.getStored());
-    };
-
     private IItemGridHandler itemGridHandler = new ItemGridHandler(this);
     private IFluidGridHandler fluidGridHandler = new FluidGridHandler(this);
 
     private IWirelessGridHandler wirelessGridHandler = new WirelessGridHandler(this);
 
     private INetworkNodeGraph nodeGraph = new NetworkNodeGraph(this);
+    private NetworkProfiler profiler = new NetworkProfiler();
+    private NetworkMetrics metrics = new NetworkMetrics();
+    private NetworkNodeScheduler nodeScheduler = new NetworkNodeScheduler(this, profiler);
 
-    private IItemStorageCache itemStorage = new ItemStorageCache(this);
-    private IFluidStorageCache fluidStorage = new FluidStorageCache(this);
+    private IItemStorageCache itemStorage = new ItemStorageCache(this, metrics);
+    private IFluidStorageCache fluidStorage = new FluidStorageCache(this, metrics);
 
     private List<ICraftingPattern> patterns = new ArrayList<>();
 
@@ -182,6 +210,13 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
 
     private boolean craftingMonitorUpdateRequested;
 
+    private boolean nodesDirty;
+    private boolean patternsDirty;
+    private boolean itemStorageDirty;
+    private boolean fluidStorageDirty;
+    private boolean energyUsageDirty = true;
+    private int energyUsage;
+
     private EnumControllerType type;
 
     private RedstoneMode redstoneMode = RedstoneMode.IGNORE;
@@ -192,6 +227,8 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
         dataManager.addWatchedParameter(ENERGY_STORED);
         dataManager.addParameter(ENERGY_CAPACITY);
         dataManager.addParameter(NODES);
+        dataManager.addWatchedParameter(PROFILING);
+        dataManager.addWatchedParameter(PROFILER_RESULTS);
 
         if (IntegrationIC2.isLoaded()) {
             this.energyEU = new ControllerEnergyIC2(this);
@@ -216,7 +253,7 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
 
     @Override
     public boolean canRun() {
-        return energy.getEnergyStored() > 0 && redstoneMode.isEnabled(worldObj, pos);
+        return energy.getEnergyStored() > 0 && (redstoneMode == RedstoneMode.IGNORE || redstoneMode.isEnabled(hasRedstoneSignal()));
     }
 
     @Override
@@ -224,9 +261,19 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
         return nodeGraph;
     }
 
+    public NetworkProfiler getProfiler() {
+        return profiler;
+    }
+
+    public NetworkMetrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public void update() {
         if (!worldObj.isRemote) {
+            long start = profiler.start();
+
             energyEU.update();
 
             if (!craftingTasksToRead.isEmpty()) {
@@ -242,13 +289,12 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
             }
 
             if (canRun()) {
-                Collections.sort(itemStorage.getStorages(), STORAGE_COMPARATOR);
-                Collections.sort(fluidStorage.getStorages(), STORAGE_COMPARATOR);
-
                 boolean craftingTasksChanged = !craftingTasksToAdd.isEmpty() || !craftingTasksToCancel.isEmpty();
 
                 for (ICraftingTask taskToCancel : craftingTasksToCancel) {
                     taskToCancel.onCancelled();
+
+                    metrics.onCraftingTaskCancelled();
                 }
 
                 craftingTasks.removeAll(craftingTasksToCancel);
@@ -257,6 +303,8 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
                 for (ICraftingTask task : craftingTasksToAdd) {
                     if (task.isValid()) {
                         craftingTasks.add(task);
+
+                        metrics.onCraftingTaskStarted();
                     }
                 }
 
@@ -264,6 +312,8 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
 
                 // Only run task updates every 5 ticks
                 if (ticks % 5 == 0) {
+                    long craftingStart = profiler.start();
+
                     Iterator<ICraftingTask> craftingTaskIterator = craftingTasks.iterator();
                     Map<ICraftingPatternContainer, Integer> usedCrafters = new HashMap<>();
 
@@ -275,9 +325,13 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
                             craftingTaskIterator.remove();
 
                             craftingTasksChanged = true;
+
+                            metrics.onCraftingTaskFinished();
                         }
                     }
 
+                    metrics.updateCraftingSteps(craftingTasks);
+
                     if (craftingTasksChanged) {
                         craftingMonitorUpdateRequested = true;
                     }
@@ -285,6 +339,8 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
                     if (!craftingTasks.isEmpty()) {
                         markDirty();
                     }
+
+                    profiler.stop("crafting_tasks", craftingStart);
                 }
 
                 if (craftingMonitorUpdateRequested) {
@@ -301,6 +357,12 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
 
             wirelessGridHandler.update();
 
+            if (canRun()) {
+                nodeScheduler.update(nodeGraph.all(), RS.INSTANCE.config.controllerNodeUpdateBudget * 1000000L);
+            } else {
+                nodeScheduler.clear();
+            }
+
             if (getType() == EnumControllerType.NORMAL) {
                 if (!RS.INSTANCE.config.controllerUsesEnergy) {
                     energy.setEnergyStored(energy.getMaxEnergyStored());
@@ -324,21 +386,113 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
 
                 updateBlock();
             }
+
+            processInvalidations();
+
+            profiler.stop("controller", start);
+            profiler.tick();
+
+            if (ticks % 20 == 0) {
+                updateMetrics();
+            }
         }
 
         super.update();
     }
 
+    private void updateMetrics() {
+        metrics.roll();
+
+        int interval = RS.INSTANCE.config.metricsExportInterval;
+
+        if (interval > 0 && (ticks / 20) % interval == 0) {
+            NetworkMetricsExporter.export(worldObj, pos, metrics.getSample(), RS.INSTANCE.config.metricsExportFormat);
+        }
+    }
+
+    /**
+     * Rebuilds everything that was marked as stale since the last call.
+     * Called at the end of the tick, the storage paths only flush the storage they use, see {@link #processItemStorageInvalidation()}.
+     */
+    private void processInvalidations() {
+        // Order matters: rebuilding the nodes can mark the patterns and storages dirty, and rebuilding the patterns can mark the item storage dirty
+        if (nodesDirty) {
+            nodesDirty = false;
+
+            long start = profiler.start();
+
+            nodeGraph.rebuild();
+
+            profiler.stop("node_graph", start);
+        }
+
+        if (patternsDirty) {
+            patternsDirty = false;
+
+            long start = profiler.start();
+
+            rebuildPatterns();
+
+            profiler.stop("patterns", start);
+        }
+
+        processItemStorageInvalidation();
+        processFluidStorageInvalidation();
+    }
+
+    /**
+     * Re-reads the item storages if they were marked as stale, called before items are inserted or extracted so we never use a storage that is gone.
+     * This doesn't rebuild the nodes or patterns: those can be marked dirty from inside an insertion or extraction (a crafting task, a node reacting to a change),
+     * and rebuilding them there would change the network while it is being used. Nodes that are broken already rebuild the graph right away.
+     */
+    private void processItemStorageInvalidation() {
+        if (itemStorageDirty) {
+            itemStorageDirty = false;
+
+            long start = profiler.start();
+
+            itemStorage.invalidate();
+
+            profiler.stop("item_storage", start);
+        }
+    }
+
+    /**
+     * Re-reads the fluid storages if they were marked as stale, see {@link #processItemStorageInvalidation()}.
+     */
+    private void processFluidStorageInvalidation() {
+        if (fluidStorageDirty) {
+            fluidStorageDirty = false;
+
+            long start = profiler.start();
+
+            fluidStorage.invalidate();
+
+            profiler.stop("fluid_storage", start);
+        }
+    }
+
     @Override
     public void sendCraftingMonitorUpdate() {
         craftingMonitorUpdateRequested = true;
     }
 
+    @Override
+    public void onLoad() {
+        super.onLoad();
+
+        if (!worldObj.isRemote && RS.INSTANCE.config.metricsJmx) {
+            metrics.register(worldObj.provider.getDimension(), pos);
+        }
+    }
+
     @Override
     public void invalidate() {
         super.invalidate();
 
         energyEU.invalidate();
+
+        metrics.unregister();
     }
 
     @Override
@@ -361,6 +515,8 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
         super.onChunkUnload();
 
         energyEU.onChunkUnload();
+
+        metrics.unregister();
     }
 
     public void onDestroyed() {
@@ -458,45 +614,128 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
             }
         }
 
-        itemStorage.invalidate();
+        markItemStorageDirty();
+    }
+
+    @Override
+    public void markPatternsDirty() {
+        patternsDirty = true;
+    }
+
+    @Override
+    public void markItemStorageDirty() {
+        itemStorageDirty = true;
+    }
+
+    @Override
+    public void markFluidStorageDirty() {
+        fluidStorageDirty = true;
+    }
+
+    @Override
+    public void markNodesDirty() {
+        nodesDirty = true;
+    }
+
+    @Override
+    public void markEnergyUsageDirty() {
+        energyUsageDirty = true;
     }
 
     @Override
     public void sendItemStorageToClient() {
+        long start = profiler.start();
+
         worldObj.getMinecraftServer().getPlayerList().getPlayerList().stream()
             .filter(player -> isWatchingGrid(player, EnumGridType.NORMAL, EnumGridType.CRAFTING, EnumGridType.PATTERN))
             .forEach(this::sendItemStorageToClient);
+
+        profiler.stop("grid_packets", start);
     }
 
     @Override
     public void sendItemStorageToClient(EntityPlayerMP player) {
-        RS.INSTANCE.network.sendTo(new MessageGridItemUpdate(this), player);
+        RS.INSTANCE.network.sendTo(new MessageGridItemUpdate(this, metrics), player);
+
+        metrics.onGridFullSync();
     }
 
     @Override
     public void sendItemStorageDeltaToClient(ItemStack stack, int delta) {
+        long start = profiler.start();
+
         worldObj.getMinecraftServer().getPlayerList().getPlayerList().stream()
             .filter(player -> isWatchingGrid(player, EnumGridType.NORMAL, EnumGridType.CRAFTING, EnumGridType.PATTERN))
-            .forEach(player -> RS.INSTANCE.network.sendTo(new MessageGridItemDelta(this, stack, delta), player));
+            .forEach(player -> {
+                RS.INSTANCE.network.sendTo(new MessageGridItemDelta(this, stack, delta), player);
+
+                metrics.onGridDelta();
+            });
+
+        profiler.stop("grid_packets", start);
+    }
+
+    @Override
+    public void sendItemStorageDeltaToClient(List<Pair<ItemStack, Integer>> deltas) {
+        long start = profiler.start();
+
+        worldObj.getMinecraftServer().getPlayerList().getPlayerList().stream()
+            .filter(player -> isWatchingGrid(player, EnumGridType.NORMAL, EnumGridType.CRAFTING, EnumGridType.PATTERN))
+            .forEach(player -> {
+                RS.INSTANCE.network.sendTo(new MessageGridItemDelta(this, deltas), player);
+
+                metrics.onGridDelta();
+            });
+
+        profiler.stop("grid_packets", start);
     }
 
     @Override
     public void sendFluidStorageToClient() {
+        long start = profiler.start();
+
         worldObj.getMinecraftServer().getPlayerList().getPlayerList().stream()
             .filter(player -> isWatchingGrid(player, EnumGridType.FLUID))
             .forEach(this::sendFluidStorageToClient);
+
+        profiler.stop("grid_packets", start);
     }
 
     @Override
     public void sendFluidStorageToClient(EntityPlayerMP player) {
         RS.INSTANCE.network.sendTo(new MessageGridFluidUpdate(this), player);
+
+        metrics.onGridFullSync();
     }
 
     @Override
     public void sendFluidStorageDeltaToClient(FluidStack stack, int delta) {
+        long start = profiler.start();
+
         worldObj.getMinecraftServer().getPlayerList().getPlayerList().stream()
             .filter(player -> isWatchingGrid(player, EnumGridType.FLUID))
-            .forEach(player -> RS.INSTANCE.network.sendTo(new MessageGridFluidDelta(stack, delta), player));
+            .forEach(player -> {
+                RS.INSTANCE.network.sendTo(new MessageGridFluidDelta(stack, delta), player);
+
+                metrics.onGridDelta();
+            });
+
+        profiler.stop("grid_packets", start);
+    }
+
+    @Override
+    public void sendFluidStorageDeltaToClient(List<Pair<FluidStack, Integer>> deltas) {
+        long start = profiler.start();
+
+        worldObj.getMinecraftServer().getPlayerList().getPlayerList().stream()
+            .filter(player -> isWatchingGrid(player, EnumGridType.FLUID))
+            .forEach(player -> {
+                RS.INSTANCE.network.sendTo(new MessageGridFluidDelta(deltas), player);
+
+                metrics.onGridDelta();
+            });
+
+        profiler.stop("grid_packets", start);
     }
 
     private boolean isWatchingGrid(EntityPlayer player, EnumGridType... types) {
@@ -513,25 +752,35 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
 
     @Override
     public ItemStack insertItem(ItemStack stack, int size, boolean simulate) {
+        processItemStorageInvalidation();
+
         if (stack == null || stack.getItem() == null || itemStorage.getStorages().isEmpty()) {
             return ItemHandlerHelper.copyStackWithSize(stack, size);
         }
 
         int orginalSize = size;
-        AccessType accessType = AccessType.READ_WRITE;
         ItemStack remainder = stack;
 
-        for (IItemStorage storage : this.itemStorage.getStorages()) {
-            accessType = storage.getAccessType();
-
-            if (accessType != AccessType.READ) {
-                remainder = storage.insertItem(remainder, size, simulate);
+        for (IItemStorage storage : itemStorage.getInsertionOrder(stack)) {
+            if (storage.getAccessType() == AccessType.READ) {
+                continue;
             }
 
+            int storageSize = size;
+
+            remainder = storage.insertItem(remainder, size, simulate);
+
             if (storage instanceof ItemStorageExternal && !simulate) {
                 ((ItemStorageExternal) storage).updateCacheForcefully();
             }
 
+            // If the stack size of the remainder is negative, it means of the original size abs(remainder.stackSize) items have been voided
+            int storageInserted = remainder == null ? storageSize : storageSize - Math.abs(remainder.stackSize);
+
+            if (!simulate && storageInserted > 0) {
+                itemStorage.add(storage, ItemHandlerHelper.copyStackWithSize(stack, storageInserted));
+            }
+
             if (remainder == null || remainder.stackSize < 0) {
                 break;
             } else {
@@ -539,7 +788,6 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
             }
         }
 
-        // If the stack size of the remainder is negative, it means of the original size abs(remainder.stackSize) items have been voided
         int inserted;
 
         if (remainder == null) {
@@ -551,8 +799,9 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
             inserted = orginalSize - remainder.stackSize;
         }
 
-        if (!simulate && inserted > 0 && accessType != AccessType.WRITE) {
-            itemStorage.add(ItemHandlerHelper.copyStackWithSize(stack, inserted), false);
+        if (!simulate && inserted > 0) {
+            metrics.onItemsInserted(inserted);
+
             ItemStack checkSteps = ItemHandlerHelper.copyStackWithSize(stack, inserted);
 
             for (ICraftingTask task : craftingTasks) {
@@ -569,29 +818,36 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
 
     @Override
     public ItemStack extractItem(ItemStack stack, int size, int flags) {
+        processItemStorageInvalidation();
+
         int requested = size;
         int received = 0;
         ItemStack newStack = null;
 
-        for (IItemStorage storage : this.itemStorage.getStorages()) {
-            ItemStack took = null;
+        // When comparing exactly only the storages that hold the item can have it
+        boolean exact = (flags & (IComparer.COMPARE_DAMAGE | IComparer.COMPARE_NBT)) == (IComparer.COMPARE_DAMAGE | IComparer.COMPARE_NBT) && (flags & IComparer.COMPARE_OREDICT) != IComparer.COMPARE_OREDICT;
 
+        List<IItemStorage> holding = exact ? itemStorage.getStorages(stack) : itemStorage.getStorages();
+
+        for (IItemStorage storage : holding) {
             if (storage.getAccessType() != AccessType.READ) {
-                took = storage.extractItem(stack, requested - received, flags);
-            }
+                ItemStack took = storage.extractItem(stack, requested - received, flags);
 
-            if (took != null) {
-                if (storage instanceof ItemStorageExternal) {
-                    ((ItemStorageExternal) storage).updateCacheForcefully();
-                }
+                if (took != null) {
+                    if (storage instanceof ItemStorageExternal) {
+                        ((ItemStorageExternal) storage).updateCacheForcefully();
+                    }
 
-                if (newStack == null) {
-                    newStack = took;
-                } else {
-                    newStack.stackSize += took.stackSize;
-                }
+                    itemStorage.remove(storage, took);
+
+                    if (newStack == null) {
+                        newStack = took;
+                    } else {
+                        newStack.stackSize += took.stackSize;
+                    }
 
-                received += took.stackSize;
+                    received += took.stackSize;
+                }
             }
 
             if (requested == received) {
@@ -599,8 +855,38 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
             }
         }
 
-        if (newStack != null) {
-            itemStorage.remove(newStack);
+        // The contents of an external storage are only known as of its last update, so it can hold the item without being indexed yet
+        if (exact && requested != received) {
+            for (IItemStorage storage : itemStorage.getStorages()) {
+                if (!(storage instanceof ItemStorageExternal) || storage.getAccessType() == AccessType.READ || holding.contains(storage)) {
+                    continue;
+                }
+
+                ItemStack took = storage.extractItem(stack, requested - received, flags);
+
+                if (took != null) {
+                    ((ItemStorageExternal) storage).updateCacheForcefully();
+
+                    // The index didn't know about the item, so refresh all of it
+                    itemStorage.invalidate(storage);
+
+                    if (newStack == null) {
+                        newStack = took;
+                    } else {
+                        newStack.stackSize += took.stackSize;
+                    }
+
+                    received += took.stackSize;
+
+                    if (requested == received) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (received > 0) {
+            metrics.onItemsExtracted(received);
         }
 
         return newStack;
@@ -609,46 +895,55 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
     @Nullable
     @Override
     public FluidStack insertFluid(@Nonnull FluidStack stack, int size, boolean simulate) {
+        processFluidStorageInvalidation();
+
         if (stack == null || fluidStorage.getStorages().isEmpty()) {
             return RSUtils.copyStackWithSize(stack, size);
         }
 
-        int orginalSize = size;
-        AccessType accessType = AccessType.READ_WRITE;
+        int originalSize = size;
         FluidStack remainder = stack;
 
         for (IFluidStorage storage : this.fluidStorage.getStorages()) {
-            accessType = storage.getAccessType();
-
-            if (accessType != AccessType.READ) {
-                remainder = storage.insertFluid(remainder, size, simulate);
+            if (storage.getAccessType() == AccessType.READ) {
+                continue;
             }
 
+            int storageSize = size;
+
+            remainder = storage.insertFluid(remainder, size, simulate);
+
             if (storage instanceof FluidStorageExternal && !simulate) {
                 ((FluidStorageExternal) storage).updateCacheForcefully();
             }
 
-            if (remainder == null) {
+            // If the amount of the remainder is negative, it means of the original size abs(remainder.amount) fluids have been voided
+            int storageInserted = remainder == null ? storageSize : storageSize - Math.abs(remainder.amount);
+
+            if (!simulate && storageInserted > 0) {
+                fluidStorage.add(storage, RSUtils.copyStackWithSize(stack, storageInserted));
+            }
+
+            if (remainder == null || remainder.amount < 0) {
                 break;
             } else {
                 size = remainder.amount;
             }
         }
 
-        // If the stack size of the remainder is negative, it means of the original size abs(remainder.amount) fluids have been voided
         int inserted;
 
         if (remainder == null) {
-            inserted = orginalSize;
+            inserted = originalSize;
         } else if (remainder.amount < 0) {
-            inserted = orginalSize + remainder.amount;
+            inserted = originalSize + remainder.amount;
             remainder = null;
         } else {
-            inserted = orginalSize - remainder.amount;
+            inserted = originalSize - remainder.amount;
         }
 
-        if (!simulate && inserted > 0 && accessType != AccessType.WRITE) {
-            fluidStorage.add(RSUtils.copyStackWithSize(stack, inserted), false);
+        if (!simulate && inserted > 0) {
+            metrics.onFluidsInserted(inserted);
         }
 
         return remainder;
@@ -657,6 +952,8 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
     @Nullable
     @Override
     public FluidStack extractFluid(@Nonnull FluidStack stack, int size, int flags) {
+        processFluidStorageInvalidation();
+
         int requested = size;
         int received = 0;
         FluidStack newStack = null;
@@ -673,6 +970,8 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
                     ((FluidStorageExternal) storage).updateCacheForcefully();
                 }
 
+                fluidStorage.remove(storage, took);
+
                 if (newStack == null) {
                     newStack = took;
                 } else {
@@ -687,8 +986,8 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
             }
         }
 
-        if (newStack != null) {
-            fluidStorage.remove(newStack);
+        if (received > 0) {
+            metrics.onFluidsExtracted(received);
         }
 
         return newStack;
@@ -815,15 +1114,20 @@ public class TileController extends TileBase implements INetworkMaster, IEnergyR
 
     @Override
     public int getEnergyUsage() {
-        int usage = RS.INSTANCE.config.controllerBaseUsage;
+        // Requested at least twice a tick, the nodes are only walked when something changed
+        if (energyUsageDirty) {
+            energyUsageDirty = false;
 
-        for (INetworkNode node : nodeGraph.all()) {
-            if (node.canUpdate()) {
-                usage += node.getEnergyUsage();
+            energyUsage = RS.INSTANCE.config.controllerBaseUsage;
+
+            for (INetworkNode node : nodeGraph.all()) {
+                if (node.canUpdate()) {
+                    energyUsage += node.getEnergyUsage();
+                }
             }
         }
 
-        return usage;
+        return energyUsage;
     }
 
     public EnumControllerType getType() {
@@ -52,7 +52,8 @@ public class TileCrafter extends TileNode implements ICraftingPatternContainer {
             }
 
             if (network != null) {
-                network.rebuildPatterns();
+                network.markPatternsDirty();
+                network.markEnergyUsageDirty();
             }
         }
     };
@@ -124,7 +125,7 @@ public class TileCrafter extends TileNode implements ICraftingPatternContainer {
                 .forEach(network::cancelCraftingTask);
         }
 
-        network.rebuildPatterns();
+        network.markPatternsDirty();
     }
 
     @Override
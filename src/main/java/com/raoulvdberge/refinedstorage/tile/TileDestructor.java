@@ -95,7 +95,7 @@ public class TileDestructor extends TileMultipartNode implements IComparable, IF
 
     @Override
     public void updateNode() {
-        if (ticks % upgrades.getSpeed(BASE_SPEED, 4) == 0) {
+        if (shouldWork(upgrades.getSpeed(BASE_SPEED, 4))) {
 
             BlockPos front = pos.offset(getDirection());
 
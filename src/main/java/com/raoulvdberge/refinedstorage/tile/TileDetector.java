@@ -106,7 +106,7 @@ public class TileDetector extends TileNode implements IComparable, IType {
 
     @Override
     public void updateNode() {
-        if (ticks % SPEED == 0) {
+        if (shouldWork(SPEED)) {
             if (type == IType.ITEMS) {
                 ItemStack slot = itemFilters.getStackInSlot(0);
 
@@ -18,9 +18,11 @@ import com.raoulvdberge.refinedstorage.inventory.IItemValidator;
 import com.raoulvdberge.refinedstorage.inventory.ItemHandlerBasic;
 import com.raoulvdberge.refinedstorage.inventory.ItemHandlerFluid;
 import com.raoulvdberge.refinedstorage.tile.config.*;
+import com.raoulvdberge.refinedstorage.tile.data.ITileDataProducer;
 import com.raoulvdberge.refinedstorage.tile.data.TileDataParameter;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.network.datasync.DataSerializers;
 import net.minecraft.util.EnumFacing;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.fluids.FluidStack;
@@ -39,12 +41,29 @@ public class TileDiskDrive extends TileNode implements IItemStorageProvider, IFl
     public static final TileDataParameter<Integer> TYPE = IType.createParameter();
     public static final TileDataParameter<Boolean> VOID_EXCESS = IExcessVoidable.createParameter();
     public static final TileDataParameter<AccessType> ACCESS_TYPE = IAccessType.createParameter();
+    public static final TileDataParameter<Integer> STORED = new TileDataParameter<>(DataSerializers.VARINT, 0, new ITileDataProducer<Integer, TileDiskDrive>() {
+        @Override
+        public Integer getValue(TileDiskDrive tile) {
+            // The stored amount in the disk NBT is only updated when the disk is written, so ask the storages
+            int stored = 0;
+
+            for (int i = 0; i < tile.disks.getSlots(); ++i) {
+                if (tile.itemStorages[i] != null) {
+                    stored += tile.itemStorages[i].getStored();
+                } else if (tile.fluidStorages[i] != null) {
+                    stored += tile.fluidStorages[i].getStored();
+                }
+            }
+
+            return stored;
+        }
+    });
 
     public class ItemStorage extends ItemStorageNBT {
         private boolean wasFull;
 
-        public ItemStorage(ItemStack disk) {
-            super(disk.getTagCompound(), EnumItemStorageType.getById(disk.getItemDamage()).getCapacity(), TileDiskDrive.this);
+        public ItemStorage(int slot) {
+            super(disks, slot, EnumItemStorageType.getById(disks.getStackInSlot(slot).getItemDamage()).getCapacity(), TileDiskDrive.this);
 
             wasFull = isFull();
         }
@@ -94,8 +113,8 @@ public class TileDiskDrive extends TileNode implements IItemStorageProvider, IFl
     public class FluidStorage extends FluidStorageNBT {
         private boolean wasFull;
 
-        public FluidStorage(ItemStack disk) {
-            super(disk.getTagCompound(), EnumFluidStorageType.getById(disk.getItemDamage()).getCapacity(), TileDiskDrive.this);
+        public FluidStorage(int slot) {
+            super(disks, slot, EnumFluidStorageType.getById(disks.getStackInSlot(slot).getItemDamage()).getCapacity(), TileDiskDrive.this);
 
             wasFull = isFull();
         }
@@ -163,8 +182,9 @@ public class TileDiskDrive extends TileNode implements IItemStorageProvider, IFl
                 RSUtils.constructFromDrive(getStackInSlot(slot), slot, itemStorages, fluidStorages, ItemStorage::new, FluidStorage::new);
 
                 if (network != null) {
-                    network.getItemStorageCache().invalidate();
-                    network.getFluidStorageCache().invalidate();
+                    network.markItemStorageDirty();
+                    network.markFluidStorageDirty();
+                    network.markEnergyUsageDirty();
                 }
 
                 if (worldObj != null) {
@@ -209,6 +229,7 @@ public class TileDiskDrive extends TileNode implements IItemStorageProvider, IFl
         dataManager.addWatchedParameter(TYPE);
         dataManager.addWatchedParameter(VOID_EXCESS);
         dataManager.addWatchedParameter(ACCESS_TYPE);
+        dataManager.addWatchedParameter(STORED);
 
         for (int i = 0; i < 8; ++i) {
             diskState[i] = DISK_STATE_NONE;
@@ -246,12 +267,40 @@ public class TileDiskDrive extends TileNode implements IItemStorageProvider, IFl
         }
     }
 
+    @Override
+    public void invalidate() {
+        super.invalidate();
+
+        releaseDisks();
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+
+        releaseDisks();
+    }
+
+    private void releaseDisks() {
+        for (ItemStorage storage : this.itemStorages) {
+            if (storage != null) {
+                storage.releaseDisk();
+            }
+        }
+
+        for (FluidStorage storage : this.fluidStorages) {
+            if (storage != null) {
+                storage.releaseDisk();
+            }
+        }
+    }
+
     @Override
     public void onConnectionChange(INetworkMaster network, boolean state) {
         super.onConnectionChange(network, state);
 
-        network.getItemStorageCache().invalidate();
-        network.getFluidStorageCache().invalidate();
+        network.markItemStorageDirty();
+        network.markFluidStorageDirty();
 
         updateBlock();
     }
@@ -451,8 +500,8 @@ public class TileDiskDrive extends TileNode implements IItemStorageProvider, IFl
         this.accessType = value;
 
         if (network != null) {
-            network.getFluidStorageCache().invalidate();
-            network.getItemStorageCache().invalidate();
+            network.markFluidStorageDirty();
+            network.markItemStorageDirty();
         }
 
         markDirty();
@@ -467,22 +516,17 @@ public class TileDiskDrive extends TileNode implements IItemStorageProvider, IFl
     public void setPriority(int priority) {
         this.priority = priority;
 
+        if (network != null) {
+            network.markItemStorageDirty();
+            network.markFluidStorageDirty();
+        }
+
         markDirty();
     }
 
     @Override
     public int getStored() {
-        int stored = 0;
-
-        for (int i = 0; i < disks.getSlots(); ++i) {
-            ItemStack disk = disks.getStackInSlot(i);
-
-            if (disk != null) {
-                stored += disk.getItem() == RSItems.STORAGE_DISK ? ItemStorageNBT.getStoredFromNBT(disk.getTagCompound()) : FluidStorageNBT.getStoredFromNBT(disk.getTagCompound());
-            }
-        }
-
-        return stored;
+        return STORED.getValue();
     }
 
     @Override
@@ -103,8 +103,8 @@ public class TileDiskManipulator extends TileNode implements IComparable, IFilte
     private ItemHandlerBasic outputDisks = new ItemHandlerBasic(6, this, IItemValidator.STORAGE_DISK);
 
     public class ItemStorage extends ItemStorageNBT {
-        public ItemStorage(ItemStack disk) {
-            super(disk.getTagCompound(), EnumItemStorageType.getById(disk.getItemDamage()).getCapacity(), TileDiskManipulator.this);
+        public ItemStorage(int slot) {
+            super(inputDisks, slot, EnumItemStorageType.getById(inputDisks.getStackInSlot(slot).getItemDamage()).getCapacity(), TileDiskManipulator.this);
         }
 
         @Override
@@ -132,8 +132,8 @@ public class TileDiskManipulator extends TileNode implements IComparable, IFilte
     }
 
     public class FluidStorage extends FluidStorageNBT {
-        public FluidStorage(ItemStack disk) {
-            super(disk.getTagCompound(), EnumFluidStorageType.getById(disk.getItemDamage()).getCapacity(), TileDiskManipulator.this);
+        public FluidStorage(int slot) {
+            super(inputDisks, slot, EnumFluidStorageType.getById(inputDisks.getStackInSlot(slot).getItemDamage()).getCapacity(), TileDiskManipulator.this);
         }
 
         @Override
@@ -175,7 +175,7 @@ public class TileDiskManipulator extends TileNode implements IComparable, IFilte
 
     @Override
     public void updateNode() {
-        if (ticks % upgrades.getSpeed() != 0) {
+        if (!shouldWork(upgrades.getSpeed())) {
             return;
         }
         int slot = 0;
@@ -220,8 +220,7 @@ public class TileDiskManipulator extends TileNode implements IComparable, IFilte
             return;
         }
 
-        for (int i = 0; i < storage.getStacks().size(); i++) {
-            ItemStack stack = storage.getStacks().get(i);
+        for (ItemStack stack : new ArrayList<>(storage.getStacks())) {
             if (stack == null) {
                 continue;
             }
@@ -240,7 +239,7 @@ public class TileDiskManipulator extends TileNode implements IComparable, IFilte
             storage.insertItem(((extracted == remainder) ? remainder.copy() : remainder), remainder.stackSize, false);
         }
 
-        if (storage.getStacks().size() == 0) {
+        if (storage.getStacks().isEmpty()) {
             moveDriveToOutput(slot);
         }
     }
@@ -300,19 +299,14 @@ public class TileDiskManipulator extends TileNode implements IComparable, IFilte
         }
 
         FluidStack extracted = null;
-        int i = 0;
-
-        do {
-            FluidStack stack = storage.getStacks().get(i);
 
-            while (stack == null && storage.getStacks().size() > i) {
-                i++;
-            }
+        for (FluidStack stack : storage.getStacks()) {
+            extracted = storage.extractFluid(stack, upgrades.getInteractStackSize(), compare);
 
-            if (stack != null) {
-                extracted = storage.extractFluid(stack, upgrades.getInteractStackSize(), compare);
+            if (extracted != null) {
+                break;
             }
-        } while (extracted == null && storage.getStacks().size() > i);
+        }
 
         if (extracted == null) {
             moveDriveToOutput(slot);
@@ -389,11 +383,13 @@ public class TileDiskManipulator extends TileNode implements IComparable, IFilte
             if (slot < 6) {
                 if (itemStorages[slot] != null) {
                     itemStorages[slot].writeToNBT();
+                    itemStorages[slot].releaseDisk();
                     itemStorages[slot] = null;
                 }
 
                 if (fluidStorages[slot] != null) {
                     fluidStorages[slot].writeToNBT();
+                    fluidStorages[slot].releaseDisk();
                     fluidStorages[slot] = null;
                 }
             }
@@ -541,4 +537,32 @@ public class TileDiskManipulator extends TileNode implements IComparable, IFilte
             }
         }
     }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+
+        releaseDisks();
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+
+        releaseDisks();
+    }
+
+    private void releaseDisks() {
+        for (ItemStorage storage : itemStorages) {
+            if (storage != null) {
+                storage.releaseDisk();
+            }
+        }
+
+        for (FluidStorage storage : fluidStorages) {
+            if (storage != null) {
+                storage.releaseDisk();
+            }
+        }
+    }
 }
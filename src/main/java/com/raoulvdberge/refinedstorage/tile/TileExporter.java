@@ -54,7 +54,7 @@ public class TileExporter extends TileMultipartNode implements IComparable, ITyp
 
     @Override
     public void updateNode() {
-        if (ticks % upgrades.getSpeed() == 0) {
+        if (shouldWork(upgrades.getSpeed())) {
             if (type == IType.ITEMS) {
                 IItemHandler handler = RSUtils.getItemHandler(getFacingTile(), getDirection().getOpposite());
 
@@ -100,7 +100,7 @@ public class TileFluidInterface extends TileNode implements IComparable {
             }
         }
 
-        if (ticks % upgrades.getSpeed() == 0) {
+        if (shouldWork(upgrades.getSpeed())) {
             FluidStack drained = tankIn.drainInternal(Fluid.BUCKET_VOLUME * upgrades.getInteractStackSize(), true);
 
             // Drain in tank
@@ -30,7 +30,7 @@ public class TileFluidStorage extends TileNode implements IFluidStorageProvider,
     public static final TileDataParameter<Integer> STORED = new TileDataParameter<>(DataSerializers.VARINT, 0, new ITileDataProducer<Integer, TileFluidStorage>() {
         @Override
         public Integer getValue(TileFluidStorage tile) {
-            return FluidStorageNBT.getStoredFromNBT(tile.storageTag);
+            return tile.storage != null ? tile.storage.getStored() : FluidStorageNBT.getStoredFromNBT(tile.storageTag);
         }
     });
 
@@ -113,7 +113,7 @@ public class TileFluidStorage extends TileNode implements IFluidStorageProvider,
             storage = new FluidStorage();
 
             if (network != null) {
-                network.getFluidStorageCache().invalidate();
+                network.markFluidStorageDirty();
             }
         }
     }
@@ -128,7 +128,7 @@ public class TileFluidStorage extends TileNode implements IFluidStorageProvider,
     public void onConnectionChange(INetworkMaster network, boolean state) {
         super.onConnectionChange(network, state);
 
-        network.getFluidStorageCache().invalidate();
+        network.markFluidStorageDirty();
     }
 
     @Override
@@ -292,7 +292,7 @@ public class TileFluidStorage extends TileNode implements IFluidStorageProvider,
         this.accessType = value;
 
         if (network != null) {
-            network.getFluidStorageCache().invalidate();
+            network.markFluidStorageDirty();
         }
 
         markDirty();
@@ -307,6 +307,10 @@ public class TileFluidStorage extends TileNode implements IFluidStorageProvider,
     public void setPriority(int priority) {
         this.priority = priority;
 
+        if (network != null) {
+            network.markFluidStorageDirty();
+        }
+
         markDirty();
     }
 
@@ -76,7 +76,7 @@ public class TileImporter extends TileMultipartNode implements IComparable, IFil
 
                 if (stack == null || !IFilterable.canTake(itemFilters, mode, compare, stack)) {
                     currentSlot++;
-                } else if (ticks % upgrades.getSpeed() == 0) {
+                } else if (shouldWork(upgrades.getSpeed())) {
                     ItemStack result = handler.extractItem(currentSlot, upgrades.getInteractStackSize(), true);
 
                     if (result != null && network.insertItem(result, result.stackSize, true) == null) {
@@ -88,7 +88,7 @@ public class TileImporter extends TileMultipartNode implements IComparable, IFil
                     }
                 }
             }
-        } else if (type == IType.FLUIDS && ticks % upgrades.getSpeed() == 0) {
+        } else if (type == IType.FLUIDS && shouldWork(upgrades.getSpeed())) {
             IFluidHandler handler = RSUtils.getFluidHandler(getFacingTile(), getDirection().getOpposite());
 
             if (handler != null) {
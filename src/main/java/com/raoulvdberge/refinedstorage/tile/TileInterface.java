@@ -56,7 +56,7 @@ public class TileInterface extends TileNode implements IComparable {
 
         if (slot == null) {
             currentSlot++;
-        } else if (ticks % upgrades.getSpeed() == 0) {
+        } else if (shouldWork(upgrades.getSpeed())) {
             int size = Math.min(slot.stackSize, upgrades.getInteractStackSize());
 
             ItemStack remainder = network.insertItem(slot, size, false);
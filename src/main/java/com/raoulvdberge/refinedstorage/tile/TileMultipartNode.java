@@ -70,7 +70,7 @@ public abstract class TileMultipartNode extends TileNode implements IMicroblockC
         markDirty();
 
         if (network != null) {
-            network.getNodeGraph().rebuild();
+            network.markNodesDirty();
         } else if (worldObj != null) {
             RSBlocks.CABLE.attemptConnect(worldObj, pos);
         }
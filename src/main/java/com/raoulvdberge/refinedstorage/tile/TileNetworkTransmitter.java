@@ -45,7 +45,7 @@ public class TileNetworkTransmitter extends TileNode {
             super.onContentsChanged(slot);
 
             if (network != null) {
-                network.getNodeGraph().rebuild();
+                network.markNodesDirty();
             }
         }
     };
@@ -65,7 +65,7 @@ public class TileNetworkTransmitter extends TileNode {
             }
 
             if (network != null) {
-                network.getNodeGraph().rebuild();
+                network.markNodesDirty();
             }
         }
     };
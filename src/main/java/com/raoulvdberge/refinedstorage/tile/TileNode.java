@@ -2,6 +2,7 @@ package com.raoulvdberge.refinedstorage.tile;
 
 import com.raoulvdberge.refinedstorage.api.network.INetworkMaster;
 import com.raoulvdberge.refinedstorage.api.network.INetworkNode;
+import com.raoulvdberge.refinedstorage.apiimpl.network.NetworkNodeScheduler;
 import com.raoulvdberge.refinedstorage.tile.config.IRedstoneConfigurable;
 import com.raoulvdberge.refinedstorage.tile.config.RedstoneMode;
 import com.raoulvdberge.refinedstorage.tile.data.TileDataParameter;
@@ -20,6 +21,8 @@ public abstract class TileNode extends TileBase implements INetworkNode, IRedsto
     private RedstoneMode redstoneMode = RedstoneMode.IGNORE;
     private boolean active;
     private boolean update;
+    // The world time from which this node may do its work again, see shouldWork(int)
+    private long nextWork;
 
     private BlockPos networkPos;
 
@@ -34,15 +37,39 @@ public abstract class TileNode extends TileBase implements INetworkNode, IRedsto
 
     @Override
     public boolean canUpdate() {
-        return redstoneMode.isEnabled(worldObj, pos);
+        return redstoneMode == RedstoneMode.IGNORE || redstoneMode.isEnabled(hasRedstoneSignal());
     }
 
     public boolean isActive() {
         return isConnected() && canUpdate();
     }
 
+    /**
+     * Called every tick while this node is active, by the controller of the network, see {@link NetworkNodeScheduler}.
+     */
     public abstract void updateNode();
 
+    /**
+     * Nodes are not updated on every tick when the controller runs out of its time budget, so nodes that work at a speed
+     * can't check the ticks of the tile, they would skip work or stop working if their updates don't line up with the speed.
+     * This checks the ticks that actually passed since the node last worked instead. When it returns true, the node has to do its work,
+     * the next work is only allowed after the given amount of ticks.
+     *
+     * @param speed the amount of ticks between work
+     * @return true if the node should do its work now, false otherwise
+     */
+    protected boolean shouldWork(int speed) {
+        long now = worldObj.getTotalWorldTime();
+
+        if (now >= nextWork) {
+            nextWork = now + speed;
+
+            return true;
+        }
+
+        return false;
+    }
+
     @Override
     public void update() {
         if (!worldObj.isRemote) {
@@ -63,8 +90,10 @@ public abstract class TileNode extends TileBase implements INetworkNode, IRedsto
 
                 onConnectionChange(network, update);
 
+                network.markEnergyUsageDirty();
+
                 if (rebuildOnUpdateChange) {
-                    network.getNodeGraph().rebuild();
+                    network.markNodesDirty();
                 }
             }
 
@@ -73,10 +102,6 @@ public abstract class TileNode extends TileBase implements INetworkNode, IRedsto
 
                 active = isActive();
             }
-
-            if (isActive()) {
-                updateNode();
-            }
         }
 
         super.update();
@@ -30,7 +30,7 @@ public class TileStorage extends TileNode implements IItemStorageProvider, IStor
     public static final TileDataParameter<Integer> STORED = new TileDataParameter<>(DataSerializers.VARINT, 0, new ITileDataProducer<Integer, TileStorage>() {
         @Override
         public Integer getValue(TileStorage tile) {
-            return ItemStorageNBT.getStoredFromNBT(tile.storageTag);
+            return tile.storage != null ? tile.storage.getStored() : ItemStorageNBT.getStoredFromNBT(tile.storageTag);
         }
     });
     public static final TileDataParameter<Boolean> VOID_EXCESS = IExcessVoidable.createParameter();
@@ -114,7 +114,7 @@ public class TileStorage extends TileNode implements IItemStorageProvider, IStor
             storage = new ItemStorage();
 
             if (network != null) {
-                network.getItemStorageCache().invalidate();
+                network.markItemStorageDirty();
             }
         }
     }
@@ -129,7 +129,7 @@ public class TileStorage extends TileNode implements IItemStorageProvider, IStor
     public void onConnectionChange(INetworkMaster network, boolean state) {
         super.onConnectionChange(network, state);
 
-        network.getItemStorageCache().invalidate();
+        network.markItemStorageDirty();
     }
 
     @Override
@@ -305,7 +305,7 @@ public class TileStorage extends TileNode implements IItemStorageProvider, IStor
         this.accessType = value;
 
         if (network != null) {
-            network.getItemStorageCache().invalidate();
+            network.markItemStorageDirty();
         }
 
         markDirty();
@@ -320,6 +320,10 @@ public class TileStorage extends TileNode implements IItemStorageProvider, IStor
     public void setPriority(int priority) {
         this.priority = priority;
 
+        if (network != null) {
+            network.markItemStorageDirty();
+        }
+
         markDirty();
     }
 
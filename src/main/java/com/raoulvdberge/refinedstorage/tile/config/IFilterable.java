@@ -1,6 +1,9 @@
 package com.raoulvdberge.refinedstorage.tile.config;
 
 import com.raoulvdberge.refinedstorage.apiimpl.API;
+import com.raoulvdberge.refinedstorage.inventory.FluidFilterIndex;
+import com.raoulvdberge.refinedstorage.inventory.ItemFilterIndex;
+import com.raoulvdberge.refinedstorage.inventory.ItemHandlerBasic;
 import com.raoulvdberge.refinedstorage.inventory.ItemHandlerFluid;
 import com.raoulvdberge.refinedstorage.tile.data.ITileDataConsumer;
 import com.raoulvdberge.refinedstorage.tile.data.ITileDataProducer;
@@ -32,6 +35,18 @@ public interface IFilterable {
     }
 
     static boolean canTake(IItemHandler filters, int mode, int compare, ItemStack stack) {
+        if (filters instanceof ItemHandlerBasic) {
+            ItemFilterIndex index = ((ItemHandlerBasic) filters).getFilterIndex();
+
+            if (mode == WHITELIST) {
+                return index.isEmpty() || index.matches(stack, compare);
+            } else if (mode == BLACKLIST) {
+                return !index.matches(stack, compare);
+            }
+
+            return false;
+        }
+
         if (mode == WHITELIST) {
             int slots = 0;
 
@@ -64,32 +79,12 @@ public interface IFilterable {
     }
 
     static boolean canTakeFluids(ItemHandlerFluid filters, int mode, int compare, FluidStack stack) {
-        if (mode == WHITELIST) {
-            int slots = 0;
-
-            for (int i = 0; i < filters.getSlots(); ++i) {
-                FluidStack slot = filters.getFluidStackInSlot(i);
-
-                if (slot != null) {
-                    slots++;
-
-                    if (API.instance().getComparer().isEqual(slot, stack, compare)) {
-                        return true;
-                    }
-                }
-            }
+        FluidFilterIndex index = filters.getFluidFilterIndex();
 
-            return slots == 0;
+        if (mode == WHITELIST) {
+            return index.isEmpty() || index.matches(stack, compare);
         } else if (mode == BLACKLIST) {
-            for (int i = 0; i < filters.getSlots(); ++i) {
-                FluidStack slot = filters.getFluidStackInSlot(i);
-
-                if (slot != null && API.instance().getComparer().isEqual(slot, stack, compare)) {
-                    return false;
-                }
-            }
-
-            return true;
+            return !index.matches(stack, compare);
         }
 
         return false;
@@ -6,6 +6,7 @@ import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.inventory.Container;
 import net.minecraftforge.event.entity.player.PlayerContainerEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
 
 public class ContainerListener {
     @SubscribeEvent
@@ -16,7 +17,20 @@ public class ContainerListener {
             TileBase tile = ((ContainerBase) container).getTile();
 
             if (tile != null && !tile.getWorld().isRemote) {
-                tile.getDataManager().sendParametersTo((EntityPlayerMP) e.getEntityPlayer());
+                tile.getDataManager().addWatcher((EntityPlayerMP) e.getEntityPlayer());
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent e) {
+        Container container = e.player.openContainer;
+
+        if (container instanceof ContainerBase) {
+            TileBase tile = ((ContainerBase) container).getTile();
+
+            if (tile != null && !tile.getWorld().isRemote) {
+                tile.getDataManager().removeWatcher((EntityPlayerMP) e.player);
             }
         }
     }
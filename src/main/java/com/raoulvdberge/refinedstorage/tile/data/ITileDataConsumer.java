@@ -1,7 +1,16 @@
 package com.raoulvdberge.refinedstorage.tile.data;
 
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.tileentity.TileEntity;
 
 public interface ITileDataConsumer<T, E extends TileEntity> {
     void setValue(E tile, T value);
+
+    /**
+     * @param player the player that sent the value
+     * @return whether the player may set the value
+     */
+    default boolean canSetValue(EntityPlayer player) {
+        return true;
+    }
 }
@@ -4,6 +4,7 @@ import com.raoulvdberge.refinedstorage.RSUtils;
 import com.raoulvdberge.refinedstorage.api.autocrafting.craftingmonitor.ICraftingMonitorElement;
 import com.raoulvdberge.refinedstorage.api.storage.AccessType;
 import com.raoulvdberge.refinedstorage.apiimpl.API;
+import com.raoulvdberge.refinedstorage.apiimpl.network.NetworkProfiler;
 import com.raoulvdberge.refinedstorage.tile.ClientNode;
 import io.netty.buffer.ByteBuf;
 import net.minecraft.network.PacketBuffer;
@@ -50,6 +51,37 @@ public final class RSSerializers {
         }
     };
 
+    public static final DataSerializer<List<NetworkProfiler.Result>> PROFILER_RESULT_SERIALIZER = new DataSerializer<List<NetworkProfiler.Result>>() {
+        @Override
+        public void write(PacketBuffer buf, List<NetworkProfiler.Result> results) {
+            buf.writeInt(results.size());
+
+            for (NetworkProfiler.Result result : results) {
+                ByteBufUtils.writeUTF8String(buf, result.getSection());
+                buf.writeLong(result.getTimePerTick());
+                buf.writeFloat(result.getCallsPerTick());
+            }
+        }
+
+        @Override
+        public List<NetworkProfiler.Result> read(PacketBuffer buf) {
+            List<NetworkProfiler.Result> results = new ArrayList<>();
+
+            int size = buf.readInt();
+
+            for (int i = 0; i < size; ++i) {
+                results.add(new NetworkProfiler.Result(ByteBufUtils.readUTF8String(buf), buf.readLong(), buf.readFloat()));
+            }
+
+            return results;
+        }
+
+        @Override
+        public DataParameter<List<NetworkProfiler.Result>> createKey(int id) {
+            return null;
+        }
+    };
+
     public static final DataSerializer<List<ICraftingMonitorElement>> CRAFTING_MONITOR_ELEMENT_SERIALIZER = new DataSerializer<List<ICraftingMonitorElement>>() {
         @Override
         public void write(PacketBuffer buf, List<ICraftingMonitorElement> elements) {
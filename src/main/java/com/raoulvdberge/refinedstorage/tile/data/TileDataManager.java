@@ -4,16 +4,12 @@ import com.raoulvdberge.refinedstorage.RS;
 import com.raoulvdberge.refinedstorage.container.ContainerBase;
 import com.raoulvdberge.refinedstorage.network.MessageTileDataParameter;
 import com.raoulvdberge.refinedstorage.network.MessageTileDataParameterUpdate;
-import com.raoulvdberge.refinedstorage.tile.TileBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.inventory.Container;
 import net.minecraft.tileentity.TileEntity;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 public class TileDataManager {
     private static int LAST_ID = 0;
@@ -24,6 +20,9 @@ public class TileDataManager {
     private List<TileDataParameter> watchedParameters = new ArrayList<>();
     private List<Object> watchedParametersCache = new ArrayList<>();
 
+    // The players that have a container of this tile open, nothing is evaluated or sent when there are none
+    private Set<EntityPlayerMP> watchers = new HashSet<>();
+
     public static void registerParameter(TileDataParameter<?> parameter) {
         parameter.setId(LAST_ID);
 
@@ -59,7 +58,33 @@ public class TileDataManager {
         watchedParametersCache.add(null);
     }
 
+    public void addWatcher(EntityPlayerMP player) {
+        if (watchers.isEmpty()) {
+            // Changes aren't tracked while nobody is watching
+            for (int i = 0; i < watchedParameters.size(); ++i) {
+                watchedParametersCache.set(i, watchedParameters.get(i).getValueProducer().getValue(tile));
+            }
+        }
+
+        watchers.add(player);
+
+        sendParametersTo(player);
+    }
+
+    public void removeWatcher(EntityPlayerMP player) {
+        watchers.remove(player);
+    }
+
     public void detectAndSendChanges() {
+        // Players can log out, respawn or open another container without closing this one
+        watchers.removeIf(player -> player.isDead || !isWatching(player));
+
+        if (watchers.isEmpty()) {
+            return;
+        }
+
+        List<TileDataParameter> changed = new ArrayList<>();
+
         for (int i = 0; i < watchedParameters.size(); ++i) {
             TileDataParameter parameter = watchedParameters.get(i);
 
@@ -69,32 +94,38 @@ public class TileDataManager {
             if (!real.equals(cached)) {
                 watchedParametersCache.set(i, real);
 
-                sendParameterToWatchers(parameter);
+                changed.add(parameter);
             }
         }
+
+        if (!changed.isEmpty()) {
+            sendParametersToWatchers(changed);
+        }
     }
 
     public void sendParametersTo(EntityPlayerMP player) {
-        for (TileDataParameter parameter : parameters) {
-            sendParameter(player, parameter);
-        }
+        RS.INSTANCE.network.sendTo(new MessageTileDataParameter(tile, parameters), player);
     }
 
     public void sendParameter(EntityPlayerMP player, TileDataParameter<?> parameter) {
-        RS.INSTANCE.network.sendTo(new MessageTileDataParameter(tile, parameter), player);
+        RS.INSTANCE.network.sendTo(new MessageTileDataParameter(tile, Collections.singletonList(parameter)), player);
     }
 
     public void sendParameterToWatchers(TileDataParameter<?> parameter) {
-        for (EntityPlayer player : tile.getWorld().playerEntities) {
-            Container container = player.openContainer;
+        sendParametersToWatchers(Collections.singletonList(parameter));
+    }
 
-            if (container instanceof ContainerBase) {
-                TileBase tile = ((ContainerBase) container).getTile();
+    private void sendParametersToWatchers(List<TileDataParameter> parameters) {
+        MessageTileDataParameter message = new MessageTileDataParameter(tile, parameters);
 
-                if (tile != null && tile.getPos().equals(this.tile.getPos())) {
-                    sendParameter((EntityPlayerMP) player, parameter);
-                }
-            }
+        for (EntityPlayerMP player : watchers) {
+            RS.INSTANCE.network.sendTo(message, player);
         }
     }
+
+    private boolean isWatching(EntityPlayer player) {
+        Container container = player.openContainer;
+
+        return container instanceof ContainerBase && ((ContainerBase) container).getTile() == tile;
+    }
 }
@@ -11,6 +11,9 @@ public abstract class ItemStorageExternal implements IItemStorage {
 
     public abstract int getCapacity();
 
+    @Override
+    public abstract List<ItemStack> getStacks();
+
     public boolean updateCache() {
         List<ItemStack> items = getStacks();
 
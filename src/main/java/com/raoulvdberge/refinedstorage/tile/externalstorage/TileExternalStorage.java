@@ -120,35 +120,25 @@ public class TileExternalStorage extends TileMultipartNode implements IItemStora
 
         updateStorage(network);
 
-        network.getItemStorageCache().invalidate();
-        network.getFluidStorageCache().invalidate();
+        network.markItemStorageDirty();
+        network.markFluidStorageDirty();
     }
 
     @Override
     public void update() {
         if (!worldObj.isRemote && network != null) {
-            boolean itemChangeDetected = false, fluidChangeDetected = false;
-
             for (ItemStorageExternal storage : itemStorages) {
                 if (storage.updateCache()) {
-                    itemChangeDetected = true;
+                    network.getItemStorageCache().invalidate(storage);
                 }
             }
 
             for (FluidStorageExternal storage : fluidStorages) {
                 if (storage.updateCache()) {
-                    fluidChangeDetected = true;
+                    network.getFluidStorageCache().invalidate(storage);
                 }
             }
 
-            if (itemChangeDetected) {
-                network.getItemStorageCache().invalidate();
-            }
-
-            if (fluidChangeDetected) {
-                network.getFluidStorageCache().invalidate();
-            }
-
             if (getFacingTile() instanceof IDrawerGroup && lastDrawerCount != ((IDrawerGroup) getFacingTile()).getDrawerCount()) {
                 lastDrawerCount = ((IDrawerGroup) getFacingTile()).getDrawerCount();
 
@@ -235,6 +225,11 @@ public class TileExternalStorage extends TileMultipartNode implements IItemStora
     public void setPriority(int priority) {
         this.priority = priority;
 
+        if (network != null) {
+            network.markItemStorageDirty();
+            network.markFluidStorageDirty();
+        }
+
         markDirty();
     }
 
@@ -272,8 +267,8 @@ public class TileExternalStorage extends TileMultipartNode implements IItemStora
             }
         }
 
-        network.getItemStorageCache().invalidate();
-        network.getFluidStorageCache().invalidate();
+        network.markItemStorageDirty();
+        network.markFluidStorageDirty();
     }
 
     @Override
@@ -346,8 +341,8 @@ public class TileExternalStorage extends TileMultipartNode implements IItemStora
         this.accessType = type;
 
         if (network != null) {
-            network.getItemStorageCache().invalidate();
-            network.getFluidStorageCache().invalidate();
+            network.markItemStorageDirty();
+            network.markFluidStorageDirty();
         }
 
         markDirty();
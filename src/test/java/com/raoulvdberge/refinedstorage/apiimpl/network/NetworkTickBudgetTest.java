@@ -0,0 +1,90 @@
+package com.raoulvdberge.refinedstorage.apiimpl.network;
+
+import com.raoulvdberge.refinedstorage.test.NetworkSimulation;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Ticks canonical network layouts, prints the tick times and checks the packets that are sent.
+ * <p>
+ * Tick times depend on the machine, so they are only checked against a budget when one is given with the system properties
+ * refinedstorage.budget.mean and refinedstorage.budget.p99, in milliseconds. Measure the machine without budgets first, a server tick is 50 ms for everything in the world.
+ */
+public class NetworkTickBudgetTest {
+    private static final int WARMUP_TICKS = 200;
+    private static final int TICKS = 1000;
+
+    @Nullable
+    private static final Double MEAN_BUDGET = getBudget("refinedstorage.budget.mean");
+    @Nullable
+    private static final Double P99_BUDGET = getBudget("refinedstorage.budget.p99");
+
+    @Test
+    public void testDiskDrives() {
+        NetworkSimulation.Report report = new NetworkSimulation()
+            .diskDrives(100)
+            .stored(10000, 1000)
+            .run(WARMUP_TICKS, TICKS);
+
+        assertWithinBudget("100 disk drives", report);
+
+        // Nothing changes in a network without importers, exporters or crafting, so nothing should be sent
+        assertEquals(0, report.getBlockUpdatesPerTick(), 0);
+        assertEquals(0, report.getGridUpdatesPerTick(), 0);
+    }
+
+    @Test
+    public void testCrafters() {
+        NetworkSimulation.Report report = new NetworkSimulation()
+            .diskDrives(8)
+            .crafters(50)
+            .run(WARMUP_TICKS, TICKS);
+
+        assertWithinBudget("50 crafters", report);
+    }
+
+    @Test
+    public void testImportersAndExporters() {
+        NetworkSimulation.Report report = new NetworkSimulation()
+            .diskDrives(16)
+            .importers(32)
+            .exporters(32)
+            .run(WARMUP_TICKS, TICKS);
+
+        assertWithinBudget("32 importers and 32 exporters", report);
+    }
+
+    @Test
+    public void testCables() {
+        NetworkSimulation.Report report = new NetworkSimulation()
+            .cables(1000)
+            .run(WARMUP_TICKS, TICKS);
+
+        assertWithinBudget("1000 cables", report);
+
+        assertEquals(0, report.getBlockUpdatesPerTick(), 0);
+    }
+
+    private static void assertWithinBudget(String layout, NetworkSimulation.Report report) {
+        System.out.println(layout + ": " + report);
+
+        if (MEAN_BUDGET != null) {
+            assertTrue(layout + " takes " + report.getMeanTickTime() / 1000000D + " ms per tick on average, the budget is " + MEAN_BUDGET + " ms", report.getMeanTickTime() <= MEAN_BUDGET * 1000000D);
+        }
+
+        if (P99_BUDGET != null) {
+            assertTrue(layout + " takes " + report.getTickTime(99) / 1000000D + " ms per tick at p99, the budget is " + P99_BUDGET + " ms", report.getTickTime(99) <= P99_BUDGET * 1000000D);
+        }
+    }
+
+    @Nullable
+    private static Double getBudget(String property) {
+        String budget = System.getProperty(property);
+
+        return budget != null ? Double.parseDouble(budget) : null;
+    }
+}
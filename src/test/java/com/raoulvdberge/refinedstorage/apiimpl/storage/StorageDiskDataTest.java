@@ -0,0 +1,135 @@
+package com.raoulvdberge.refinedstorage.apiimpl.storage;
+
+import com.raoulvdberge.refinedstorage.RSItems;
+import com.raoulvdberge.refinedstorage.apiimpl.storage.item.ItemStorageNBT;
+import com.raoulvdberge.refinedstorage.item.ItemStorageDisk;
+import com.raoulvdberge.refinedstorage.test.LegacyItemStorageNBT;
+import com.raoulvdberge.refinedstorage.test.TestBootstrap;
+import com.raoulvdberge.refinedstorage.test.TestInventory;
+import com.raoulvdberge.refinedstorage.test.TestItems;
+import com.raoulvdberge.refinedstorage.test.TestWorld;
+import net.minecraft.init.Blocks;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemStackHandler;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that disk contents survive a restart of the server, and that only disks that are gone are removed.
+ */
+public class StorageDiskDataTest {
+    private static final int CAPACITY = 64000;
+
+    @BeforeClass
+    public static void setup() {
+        TestBootstrap.init();
+    }
+
+    @Test
+    public void testLegacyDiskSurvivesSave() {
+        ItemStack legacyStack = TestItems.create(0, 10);
+        ItemStack insertedStack = TestItems.create(1, 5);
+
+        // A disk from an older world has its contents in its own NBT, in save protocol 1
+        ItemStack disk = new ItemStack(RSItems.STORAGE_DISK, 1, ItemStorageDisk.TYPE_64K);
+        disk.setTagCompound(LegacyItemStorageNBT.write(Collections.singletonList(legacyStack)));
+
+        ItemStackHandler disks = new ItemStackHandler(1);
+        disks.setStackInSlot(0, disk);
+
+        TestWorld world = new TestWorld();
+
+        ItemStorageNBT storage = create(world, disks);
+
+        // Reading the legacy contents marks the storage as changed, the insertion after that must still be saved
+        storage.getStacks();
+        storage.insertItem(insertedStack, insertedStack.stackSize, false);
+
+        NBTTagCompound saved = StorageDiskData.get(world).writeToNBT(new NBTTagCompound());
+
+        TestWorld restartedWorld = new TestWorld();
+
+        StorageDiskData.get(restartedWorld).readFromNBT(saved);
+
+        ItemStorageNBT restored = create(restartedWorld, disks);
+
+        assertEquals(legacyStack.stackSize + insertedStack.stackSize, restored.getStored());
+        assertEquals(2, restored.getStacks().size());
+
+        for (ItemStack stack : restored.getStacks()) {
+            assertTrue(ItemStack.areItemStacksEqual(stack, legacyStack) || ItemStack.areItemStacksEqual(stack, insertedStack));
+        }
+    }
+
+    @Test
+    public void testRemove() {
+        StorageDiskData data = new StorageDiskData("test");
+
+        ItemStack disk = ItemStorageNBT.createStackWithNBT(new ItemStack(RSItems.STORAGE_DISK, 1, ItemStorageDisk.TYPE_64K));
+
+        Object owner = new Object();
+
+        data.acquire(disk, owner, ItemStorageNBT::createNBT);
+
+        UUID id = StorageDiskData.getId(disk);
+
+        // A copy of the disk that is disassembled while the original is in a drive
+        assertFalse(data.remove(id));
+
+        data.release(id, owner);
+
+        assertTrue(data.remove(id));
+        assertEquals(0, data.getDiskCount());
+    }
+
+    @Test
+    public void testPrune() {
+        StorageDiskData data = new StorageDiskData("test");
+
+        Object owner = new Object();
+
+        ItemStack usedDisk = ItemStorageNBT.createStackWithNBT(new ItemStack(RSItems.STORAGE_DISK, 1, ItemStorageDisk.TYPE_64K));
+        ItemStack lostDisk = ItemStorageNBT.createStackWithNBT(new ItemStack(RSItems.STORAGE_DISK, 1, ItemStorageDisk.TYPE_64K));
+
+        data.acquire(usedDisk, owner, ItemStorageNBT::createNBT);
+        data.acquire(lostDisk, owner, ItemStorageNBT::createNBT);
+
+        data.release(StorageDiskData.getId(lostDisk), owner);
+
+        long future = System.currentTimeMillis() + 1000;
+
+        assertEquals(0, data.countUnseenSince(System.currentTimeMillis() - 1000));
+        assertEquals(1, data.countUnseenSince(future));
+
+        assertEquals(1, data.prune(future));
+        assertEquals(1, data.getDiskCount());
+
+        // The disk that is still used is the one that was kept
+        data.release(StorageDiskData.getId(usedDisk), owner);
+
+        assertTrue(data.remove(StorageDiskData.getId(usedDisk)));
+    }
+
+    private static ItemStorageNBT create(TestWorld world, IItemHandler disks) {
+        TestInventory tile = new TestInventory(0);
+
+        world.place(BlockPos.ORIGIN, Blocks.CHEST.getDefaultState(), tile);
+
+        return new ItemStorageNBT(disks, 0, CAPACITY, tile) {
+            @Override
+            public int getPriority() {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,203 @@
+package com.raoulvdberge.refinedstorage.apiimpl.storage.item;
+
+import com.raoulvdberge.refinedstorage.test.LegacyItemStorageNBT;
+import com.raoulvdberge.refinedstorage.test.TestBootstrap;
+import com.raoulvdberge.refinedstorage.test.TestItems;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntity;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares save protocol 2 with save protocol 1 for a full 64k disk, the read and write times are measured in ItemStorageNBTFormatBenchmark.
+ * <p>
+ * In protocol 1 every item is a compound tag of 40 bytes, and 61 bytes with a small NBT tag.
+ * In protocol 2 every item is 12 bytes in the int array, items with NBT add a compound tag of 34 bytes to the extras.
+ */
+public class ItemStorageNBTFormatTest {
+    private static final int CAPACITY = 64000;
+
+    private static final int LEGACY_ITEM_SIZE = 40;
+    private static final int LEGACY_ITEM_WITH_TAG_SIZE = 61;
+    private static final int PACKED_ITEM_SIZE = 12;
+    private static final int PACKED_EXTRA_SIZE = 34;
+
+    @BeforeClass
+    public static void setup() {
+        TestBootstrap.init();
+    }
+
+    @Test
+    public void testSize() throws IOException {
+        int legacyEmpty = size(LegacyItemStorageNBT.write(new ArrayList<>()));
+        int packedEmpty = size(ItemStorageNBT.createNBT());
+
+        for (int types : new int[]{10, 1000, 64000}) {
+            ItemStorageNBT storage = createFull(types);
+
+            int withTag = (int) storage.getStacks().stream().filter(ItemStack::hasTagCompound).count();
+
+            NBTTagCompound legacy = LegacyItemStorageNBT.write(storage.getStacks());
+            NBTTagCompound packed = write(storage);
+
+            assertEquals(legacyEmpty + (types - withTag) * LEGACY_ITEM_SIZE + withTag * LEGACY_ITEM_WITH_TAG_SIZE, size(legacy));
+            assertEquals(packedEmpty + types * PACKED_ITEM_SIZE + withTag * PACKED_EXTRA_SIZE, size(packed));
+
+            System.out.println(String.format(
+                "%d types (%d with NBT): protocol 1 is %d bytes (%d compressed), protocol 2 is %d bytes (%d compressed)",
+                types,
+                withTag,
+                size(legacy),
+                compressedSize(legacy),
+                size(packed),
+                compressedSize(packed)
+            ));
+
+            assertTrue(size(packed) < size(legacy));
+        }
+    }
+
+    @Test
+    public void testReadLegacy() {
+        ItemStorageNBT storage = createFull(1000);
+
+        assertSameStacks(storage.getStacks(), create(LegacyItemStorageNBT.write(storage.getStacks())).getStacks());
+    }
+
+    @Test
+    public void testReadPacked() {
+        ItemStorageNBT storage = createFull(1000);
+
+        assertSameStacks(storage.getStacks(), create(write(storage).copy()).getStacks());
+    }
+
+    @Test
+    public void testReadTwice() {
+        ItemStorageNBT storage = create(write(createFull(1000)).copy());
+
+        List<ItemStack> read = copy(storage.getStacks());
+
+        storage.readFromNBT();
+
+        assertSameStacks(read, storage.getStacks());
+        assertEquals(CAPACITY, storage.getStored());
+    }
+
+    @Test
+    public void testLegacyUpgradeIsSaved() {
+        ItemStack legacyStack = TestItems.create(0, 10);
+        ItemStack insertedStack = TestItems.create(1, 5);
+
+        int[] markedDirty = new int[1];
+
+        TileEntity tile = new TileEntity() {
+            @Override
+            public void markDirty() {
+                markedDirty[0]++;
+            }
+        };
+
+        NBTTagCompound tag = LegacyItemStorageNBT.write(Collections.singletonList(legacyStack));
+
+        ItemStorageNBT storage = create(tag, tile);
+
+        // Reading the legacy contents marks the storage as changed, the insertion after that must still be saved
+        storage.getStacks();
+        storage.insertItem(insertedStack, insertedStack.stackSize, false);
+
+        // The tile only saves the disk when it's marked dirty
+        assertTrue(markedDirty[0] > 0);
+
+        storage.writeToNBT();
+
+        ItemStorageNBT restored = create(tag.copy());
+
+        assertEquals(legacyStack.stackSize + insertedStack.stackSize, restored.getStored());
+        assertEquals(2, restored.getStacks().size());
+
+        for (ItemStack stack : restored.getStacks()) {
+            assertTrue(ItemStack.areItemStacksEqual(stack, legacyStack) || ItemStack.areItemStacksEqual(stack, insertedStack));
+        }
+    }
+
+    private static void assertSameStacks(Collection<ItemStack> expected, Collection<ItemStack> actual) {
+        assertEquals(expected.size(), actual.size());
+
+        List<ItemStack> expectedList = new ArrayList<>(expected);
+        List<ItemStack> actualList = new ArrayList<>(actual);
+
+        for (int i = 0; i < expectedList.size(); ++i) {
+            assertTrue(ItemStack.areItemStacksEqual(expectedList.get(i), actualList.get(i)));
+        }
+    }
+
+    private static List<ItemStack> copy(Collection<ItemStack> stacks) {
+        List<ItemStack> copy = new ArrayList<>();
+
+        for (ItemStack stack : stacks) {
+            copy.add(stack.copy());
+        }
+
+        return copy;
+    }
+
+    private static ItemStorageNBT createFull(int types) {
+        ItemStorageNBT storage = create(ItemStorageNBT.createNBT());
+
+        for (int i = 0; i < types; ++i) {
+            storage.insertItem(TestItems.create(i, 1), CAPACITY / types, false);
+        }
+
+        return storage;
+    }
+
+    private static ItemStorageNBT create(NBTTagCompound tag) {
+        return create(tag, null);
+    }
+
+    private static ItemStorageNBT create(NBTTagCompound tag, @Nullable TileEntity tile) {
+        return new ItemStorageNBT(tag, CAPACITY, tile) {
+            @Override
+            public int getPriority() {
+                return 0;
+            }
+        };
+    }
+
+    private static NBTTagCompound write(ItemStorageNBT storage) {
+        storage.onStorageChanged();
+        storage.writeToNBT();
+
+        return storage.getTag();
+    }
+
+    private static int size(NBTTagCompound tag) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        CompressedStreamTools.write(tag, new DataOutputStream(bytes));
+
+        return bytes.size();
+    }
+
+    private static int compressedSize(NBTTagCompound tag) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        CompressedStreamTools.writeCompressed(tag, bytes);
+
+        return bytes.size();
+    }
+}
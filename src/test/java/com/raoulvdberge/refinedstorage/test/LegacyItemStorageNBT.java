@@ -0,0 +1,59 @@
+package com.raoulvdberge.refinedstorage.test;
+
+import com.raoulvdberge.refinedstorage.apiimpl.storage.item.ItemStorageNBT;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+
+import java.util.Collection;
+
+/**
+ * Writes storage contents in save protocol 1, the format from before protocol 2 packed the items in an int array.
+ * {@link ItemStorageNBT} still reads it and upgrades it on the next save, this is how disks from older worlds look.
+ */
+public final class LegacyItemStorageNBT {
+    private LegacyItemStorageNBT() {
+    }
+
+    public static NBTTagCompound write(Collection<ItemStack> stacks) {
+        NBTTagList list = new NBTTagList();
+
+        // Dummy value for extracting ForgeCaps
+        NBTTagCompound dummy = new NBTTagCompound();
+
+        int stored = 0;
+
+        for (ItemStack stack : stacks) {
+            NBTTagCompound itemTag = new NBTTagCompound();
+
+            itemTag.setInteger("Type", Item.getIdFromItem(stack.getItem()));
+            itemTag.setInteger("Quantity", stack.stackSize);
+            itemTag.setInteger("Damage", stack.getItemDamage());
+
+            if (stack.hasTagCompound()) {
+                itemTag.setTag("NBT", stack.getTagCompound().copy());
+            }
+
+            stack.writeToNBT(dummy);
+
+            if (dummy.hasKey("ForgeCaps")) {
+                itemTag.setTag("Caps", dummy.getTag("ForgeCaps"));
+            }
+
+            dummy.removeTag("ForgeCaps");
+
+            list.appendTag(itemTag);
+
+            stored += stack.stackSize;
+        }
+
+        NBTTagCompound tag = new NBTTagCompound();
+
+        tag.setTag("Items", list);
+        tag.setInteger("Stored", stored);
+        tag.setInteger("Protocol", 1);
+
+        return tag;
+    }
+}
@@ -0,0 +1,407 @@
+package com.raoulvdberge.refinedstorage.test;
+
+import com.raoulvdberge.refinedstorage.RSBlocks;
+import com.raoulvdberge.refinedstorage.RSItems;
+import com.raoulvdberge.refinedstorage.api.util.IComparer;
+import com.raoulvdberge.refinedstorage.apiimpl.storage.item.ItemStorageNBT;
+import com.raoulvdberge.refinedstorage.block.BlockController;
+import com.raoulvdberge.refinedstorage.block.EnumControllerType;
+import com.raoulvdberge.refinedstorage.item.ItemStorageDisk;
+import com.raoulvdberge.refinedstorage.tile.*;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.items.ItemStackHandler;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds a network in a {@link TestWorld} and measures its ticks, without a running game.
+ * <p>
+ * The controller is a creative controller at the origin, with a line of cables along the x axis. Disk drives, importers,
+ * exporters and crafters are attached to the cables, four on every cable, and more cables are added when needed.
+ * Importers face an inventory that is refilled every tick, exporters face an inventory that is emptied every tick
+ * and export one of the stored types each.
+ * <p>
+ * Disk drives hold eight 64k disks, the stored types are inserted through the controller before the measurement starts.
+ * Crafters hold nine patterns, the first pattern of every crafter is requested once the network is formed.
+ */
+public class NetworkSimulation {
+    private static final EnumFacing[] ATTACHMENTS = {EnumFacing.NORTH, EnumFacing.SOUTH, EnumFacing.UP, EnumFacing.DOWN};
+
+    private static final int COMPARE_EXACT = IComparer.COMPARE_DAMAGE | IComparer.COMPARE_NBT;
+
+    private int cables;
+    private int diskDrives;
+    private int importers;
+    private int exporters;
+    private int crafters;
+
+    private int types = 1000;
+    private int quantityPerType = 1000;
+
+    private TestWorld world;
+    private TileController controller;
+    private long gridUpdates;
+
+    private List<ItemStackHandler> sources = new ArrayList<>();
+    private List<ItemStackHandler> sinks = new ArrayList<>();
+    private List<ItemStack> requests = new ArrayList<>();
+
+    public NetworkSimulation cables(int cables) {
+        this.cables = cables;
+
+        return this;
+    }
+
+    public NetworkSimulation diskDrives(int diskDrives) {
+        this.diskDrives = diskDrives;
+
+        return this;
+    }
+
+    public NetworkSimulation importers(int importers) {
+        this.importers = importers;
+
+        return this;
+    }
+
+    public NetworkSimulation exporters(int exporters) {
+        this.exporters = exporters;
+
+        return this;
+    }
+
+    public NetworkSimulation crafters(int crafters) {
+        this.crafters = crafters;
+
+        return this;
+    }
+
+    /**
+     * @param types           the amount of item types that are stored, only stored when there are disk drives
+     * @param quantityPerType the amount stored of every type
+     * @return this simulation
+     */
+    public NetworkSimulation stored(int types, int quantityPerType) {
+        this.types = types;
+        this.quantityPerType = quantityPerType;
+
+        return this;
+    }
+
+    /**
+     * Builds the network and ticks the world. The ticks run on a thread that Forge sees as the server thread.
+     *
+     * @param warmupTicks the ticks before the measurement, the network is formed and filled in the first tick
+     * @param ticks       the ticks that are measured
+     * @return the measurement
+     */
+    public Report run(int warmupTicks, int ticks) {
+        TestBootstrap.init();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "Server thread"));
+
+        try {
+            return executor.submit(() -> simulate(warmupTicks, ticks)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("The simulation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The simulation failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Report simulate(int warmupTicks, int ticks) {
+        build();
+
+        world.tick();
+
+        for (int i = 0; i < types && diskDrives > 0; ++i) {
+            controller.insertItem(TestItems.create(i, 1), quantityPerType, false);
+        }
+
+        for (ItemStack request : requests) {
+            controller.scheduleCraftingTask(request, 1, COMPARE_EXACT);
+        }
+
+        for (int i = 1; i < warmupTicks; ++i) {
+            tick();
+        }
+
+        long[] tickTimes = new long[ticks];
+        long allocated = 0;
+        long blockUpdates = world.getBlockUpdates();
+        long gridUpdates = this.gridUpdates;
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < ticks; ++i) {
+            refill();
+
+            long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+
+            world.tick();
+
+            tickTimes[i] = System.nanoTime() - start;
+            allocated += threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        }
+
+        return new Report(tickTimes, allocated, world.getBlockUpdates() - blockUpdates, this.gridUpdates - gridUpdates);
+    }
+
+    private void tick() {
+        refill();
+
+        world.tick();
+    }
+
+    private void refill() {
+        for (int i = 0; i < sources.size(); ++i) {
+            if (sources.get(i).getStackInSlot(0) == null) {
+                sources.get(i).setStackInSlot(0, TestItems.create(i % types, 64));
+            }
+        }
+
+        for (ItemStackHandler sink : sinks) {
+            for (int i = 0; i < sink.getSlots(); ++i) {
+                sink.setStackInSlot(i, null);
+            }
+        }
+    }
+
+    private void build() {
+        world = new TestWorld();
+
+        controller = new TileController() {
+            @Override
+            public void sendItemStorageToClient() {
+                super.sendItemStorageToClient();
+
+                gridUpdates++;
+            }
+
+            @Override
+            public void sendItemStorageDeltaToClient(ItemStack stack, int delta) {
+                super.sendItemStorageDeltaToClient(stack, delta);
+
+                gridUpdates++;
+            }
+
+            @Override
+            public void sendItemStorageDeltaToClient(List<Pair<ItemStack, Integer>> deltas) {
+                super.sendItemStorageDeltaToClient(deltas);
+
+                gridUpdates++;
+            }
+
+            @Override
+            public void sendFluidStorageToClient() {
+                super.sendFluidStorageToClient();
+
+                gridUpdates++;
+            }
+
+            @Override
+            public void sendFluidStorageDeltaToClient(FluidStack stack, int delta) {
+                super.sendFluidStorageDeltaToClient(stack, delta);
+
+                gridUpdates++;
+            }
+
+            @Override
+            public void sendFluidStorageDeltaToClient(List<Pair<FluidStack, Integer>> deltas) {
+                super.sendFluidStorageDeltaToClient(deltas);
+
+                gridUpdates++;
+            }
+        };
+
+        world.place(BlockPos.ORIGIN, RSBlocks.CONTROLLER.getDefaultState().withProperty(BlockController.TYPE, EnumControllerType.CREATIVE), controller);
+
+        int nodes = diskDrives + importers + exporters + crafters;
+        int cableCount = Math.max(cables, (nodes + ATTACHMENTS.length - 1) / ATTACHMENTS.length);
+
+        for (int i = 0; i < cableCount; ++i) {
+            world.place(new BlockPos(i + 1, 0, 0), RSBlocks.CABLE.getDefaultState(), new TileCable());
+        }
+
+        for (int i = 0; i < nodes; ++i) {
+            EnumFacing facing = ATTACHMENTS[i % ATTACHMENTS.length];
+            BlockPos pos = new BlockPos(i / ATTACHMENTS.length + 1, 0, 0).offset(facing);
+
+            if (i < diskDrives) {
+                placeDiskDrive(pos, facing);
+            } else if (i < diskDrives + importers) {
+                placeImporter(pos, facing);
+            } else if (i < diskDrives + importers + exporters) {
+                placeExporter(pos, facing, i);
+            } else {
+                placeCrafter(pos, facing, i - diskDrives - importers - exporters);
+            }
+        }
+    }
+
+    private void placeDiskDrive(BlockPos pos, EnumFacing facing) {
+        TileDiskDrive diskDrive = new TileDiskDrive();
+
+        place(pos, facing, RSBlocks.DISK_DRIVE.getDefaultState(), diskDrive);
+
+        // The disks are inserted once the drive is in the world, so their contents are kept in the disk data of the world
+        for (int i = 0; i < diskDrive.getDisks().getSlots(); ++i) {
+            diskDrive.getDisks().insertItem(i, ItemStorageNBT.createStackWithNBT(new ItemStack(RSItems.STORAGE_DISK, 1, ItemStorageDisk.TYPE_64K)), false);
+        }
+    }
+
+    private void placeImporter(BlockPos pos, EnumFacing facing) {
+        place(pos, facing, RSBlocks.IMPORTER.getDefaultState(), new TileImporter());
+
+        sources.add(placeInventory(pos.offset(facing), 1));
+    }
+
+    private void placeExporter(BlockPos pos, EnumFacing facing, int index) {
+        TileExporter exporter = new TileExporter();
+
+        place(pos, facing, RSBlocks.EXPORTER.getDefaultState(), exporter);
+
+        exporter.getFilterInventory().insertItem(0, TestItems.create(index % types, 1), false);
+
+        sinks.add(placeInventory(pos.offset(facing), 9));
+    }
+
+    private void placeCrafter(BlockPos pos, EnumFacing facing, int index) {
+        TileCrafter crafter = new TileCrafter();
+
+        place(pos, facing, RSBlocks.CRAFTER.getDefaultState(), crafter);
+
+        for (int i = 0; i < crafter.getPatternItems().getSlots(); ++i) {
+            // Every pattern crafts a type that isn't stored from two stored types
+            int output = types + index * crafter.getPatternItems().getSlots() + i;
+
+            ItemStack pattern = TestPatternItem.create(output, (index + i) % types, (index + i + 1) % types);
+
+            crafter.getPatternItems().insertItem(i, pattern, false);
+
+            if (i == 0) {
+                requests.add(TestPatternItem.getOutput(pattern));
+            }
+        }
+
+        placeInventory(pos.offset(facing), 9);
+    }
+
+    private void place(BlockPos pos, EnumFacing facing, IBlockState state, TileBase tile) {
+        tile.setDirection(facing);
+
+        world.place(pos, state, tile);
+    }
+
+    private ItemStackHandler placeInventory(BlockPos pos, int slots) {
+        TestInventory inventory = new TestInventory(slots);
+
+        world.place(pos, Blocks.CHEST.getDefaultState(), inventory);
+
+        return inventory.getItems();
+    }
+
+    public TestWorld getWorld() {
+        return world;
+    }
+
+    public TileController getController() {
+        return controller;
+    }
+
+    /**
+     * The measured ticks of a simulation.
+     */
+    public static class Report {
+        private long[] tickTimes;
+        private long allocated;
+        private long blockUpdates;
+        private long gridUpdates;
+
+        public Report(long[] tickTimes, long allocated, long blockUpdates, long gridUpdates) {
+            this.tickTimes = tickTimes.clone();
+            this.allocated = allocated;
+            this.blockUpdates = blockUpdates;
+            this.gridUpdates = gridUpdates;
+
+            Arrays.sort(this.tickTimes);
+        }
+
+        public int getTicks() {
+            return tickTimes.length;
+        }
+
+        /**
+         * @return the mean time of a tick in nanoseconds
+         */
+        public double getMeanTickTime() {
+            return (double) Arrays.stream(tickTimes).sum() / tickTimes.length;
+        }
+
+        /**
+         * @param percentile the percentile, between 0 and 100
+         * @return the time of a tick at the percentile in nanoseconds
+         */
+        public long getTickTime(double percentile) {
+            return tickTimes[Math.min(tickTimes.length - 1, (int) Math.ceil(percentile / 100D * tickTimes.length) - 1)];
+        }
+
+        public long getMaxTickTime() {
+            return tickTimes[tickTimes.length - 1];
+        }
+
+        /**
+         * @return the bytes allocated on the server thread per tick
+         */
+        public double getAllocatedPerTick() {
+            return (double) allocated / tickTimes.length;
+        }
+
+        /**
+         * @return the block updates per tick, every update is a packet for every player that sees the block
+         */
+        public double getBlockUpdatesPerTick() {
+            return (double) blockUpdates / tickTimes.length;
+        }
+
+        /**
+         * @return the grid updates per tick, every update is a packet for every player that has a grid of the network open
+         */
+        public double getGridUpdatesPerTick() {
+            return (double) gridUpdates / tickTimes.length;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%d ticks: mean %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms, %.1f KB allocated, %.2f block updates and %.2f grid updates per tick",
+                getTicks(),
+                getMeanTickTime() / 1000000D,
+                getTickTime(50) / 1000000D,
+                getTickTime(99) / 1000000D,
+                getMaxTickTime() / 1000000D,
+                getAllocatedPerTick() / 1024D,
+                getBlockUpdatesPerTick(),
+                getGridUpdatesPerTick()
+            );
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.raoulvdberge.refinedstorage.test;
+
+import com.raoulvdberge.refinedstorage.RS;
+import com.raoulvdberge.refinedstorage.RSConfig;
+import com.raoulvdberge.refinedstorage.apiimpl.API;
+import com.raoulvdberge.refinedstorage.apiimpl.autocrafting.registry.CraftingTaskFactory;
+import net.minecraft.init.Bootstrap;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityManager;
+import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.items.CapabilityItemHandler;
+import net.minecraftforge.items.IItemHandler;
+import sun.misc.Unsafe;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sets up just enough of Minecraft, Forge and Refined Storage to use the storage, network and crafting code outside of the game,
+ * for benchmarks and tests. Only vanilla blocks and items are registered, the blocks and items of Refined Storage are not.
+ * The item handler capability is registered, the other capabilities are not.
+ */
+public final class TestBootstrap {
+    private static boolean initialized;
+
+    private TestBootstrap() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static synchronized void init() {
+        if (initialized) {
+            return;
+        }
+
+        initialized = true;
+
+        try {
+            // Loader#instance() needs the launch class loader of FML, an empty loader answers that no loading state has been reached
+            Loader loader = allocate(Loader.class);
+
+            Field loaderField = Loader.class.getDeclaredField("instance");
+            loaderField.setAccessible(true);
+            loaderField.set(null, loader);
+
+            // The integrations ask the loader whether their mod is loaded, none are
+            Field namedModsField = Loader.class.getDeclaredField("namedMods");
+            namedModsField.setAccessible(true);
+            namedModsField.set(loader, new HashMap<>());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not set up FML", e);
+        }
+
+        Bootstrap.register();
+
+        CapabilityItemHandler.register();
+
+        try {
+            // @CapabilityInject fields are only filled in while mods are loaded
+            Field providersField = CapabilityManager.class.getDeclaredField("providers");
+            providersField.setAccessible(true);
+
+            CapabilityItemHandler.ITEM_HANDLER_CAPABILITY = (Capability<IItemHandler>) ((Map<String, Capability<?>>) providersField.get(CapabilityManager.INSTANCE)).get(IItemHandler.class.getName().intern());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not register the item handler capability", e);
+        }
+
+        File configFile;
+
+        try {
+            configFile = File.createTempFile("refinedstorage", ".cfg");
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create the config", e);
+        }
+
+        configFile.deleteOnExit();
+
+        RS.INSTANCE = new RS();
+        RS.INSTANCE.config = new RSConfig(configFile);
+
+        API.instance().getCraftingTaskRegistry().addFactory(CraftingTaskFactory.ID, new CraftingTaskFactory());
+    }
+
+    /**
+     * Creates an instance without calling a constructor, for classes of the game that can't be constructed outside of it.
+     * None of the fields are initialized.
+     *
+     * @param clazz the class
+     * @return the instance
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T allocate(Class<T> clazz) throws ReflectiveOperationException {
+        Field unsafeField = Unsafe.class.getDeclaredField("theUnsafe");
+        unsafeField.setAccessible(true);
+
+        return (T) ((Unsafe) unsafeField.get(null)).allocateInstance(clazz);
+    }
+}
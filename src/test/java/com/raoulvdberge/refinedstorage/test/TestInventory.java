@@ -0,0 +1,36 @@
+package com.raoulvdberge.refinedstorage.test;
+
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.items.CapabilityItemHandler;
+import net.minecraftforge.items.ItemStackHandler;
+
+/**
+ * A tile with an inventory, for importers, exporters and crafters to face.
+ */
+public class TestInventory extends TileEntity {
+    private ItemStackHandler items;
+
+    public TestInventory(int slots) {
+        this.items = new ItemStackHandler(slots);
+    }
+
+    public ItemStackHandler getItems() {
+        return items;
+    }
+
+    @Override
+    public boolean hasCapability(Capability<?> capability, EnumFacing facing) {
+        return capability == CapabilityItemHandler.ITEM_HANDLER_CAPABILITY || super.hasCapability(capability, facing);
+    }
+
+    @Override
+    public <T> T getCapability(Capability<T> capability, EnumFacing facing) {
+        if (capability == CapabilityItemHandler.ITEM_HANDLER_CAPABILITY) {
+            return (T) items;
+        }
+
+        return super.getCapability(capability, facing);
+    }
+}
@@ -0,0 +1,54 @@
+package com.raoulvdberge.refinedstorage.test;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates any number of distinct item types from the vanilla items, see {@link TestBootstrap}.
+ * The first types are plain vanilla items, the next ones have an NBT tag, like the named and enchanted items of a real network.
+ */
+public final class TestItems {
+    private static List<Item> items;
+
+    private TestItems() {
+    }
+
+    /**
+     * @param type the type, every type gives a different item
+     * @param size the stack size
+     * @return a new stack of the type
+     */
+    public static ItemStack create(int type, int size) {
+        List<Item> items = getItems();
+
+        ItemStack stack = new ItemStack(items.get(type % items.size()), size);
+
+        int variant = type / items.size();
+
+        if (variant > 0) {
+            NBTTagCompound tag = new NBTTagCompound();
+
+            tag.setInteger("Variant", variant);
+
+            stack.setTagCompound(tag);
+        }
+
+        return stack;
+    }
+
+    private static synchronized List<Item> getItems() {
+        if (items == null) {
+            items = new ArrayList<>();
+
+            for (Item item : Item.REGISTRY) {
+                items.add(item);
+            }
+        }
+
+        return items;
+    }
+}
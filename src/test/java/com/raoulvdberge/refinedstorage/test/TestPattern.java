@@ -0,0 +1,85 @@
+package com.raoulvdberge.refinedstorage.test;
+
+import com.raoulvdberge.refinedstorage.api.autocrafting.ICraftingPattern;
+import com.raoulvdberge.refinedstorage.api.autocrafting.ICraftingPatternContainer;
+import com.raoulvdberge.refinedstorage.apiimpl.API;
+import com.raoulvdberge.refinedstorage.apiimpl.autocrafting.registry.CraftingTaskFactory;
+import net.minecraft.item.ItemStack;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A crafting pattern that isn't backed by a pattern item, it crafts a single output from up to 9 inputs.
+ */
+public class TestPattern implements ICraftingPattern {
+    private ICraftingPatternContainer container;
+    private List<ItemStack> inputs;
+    private ItemStack output;
+
+    public TestPattern(ICraftingPatternContainer container, List<ItemStack> inputs, ItemStack output) {
+        this.container = container;
+        this.inputs = inputs;
+        this.output = output;
+    }
+
+    @Override
+    public ICraftingPatternContainer getContainer() {
+        return container;
+    }
+
+    @Override
+    public ItemStack getStack() {
+        return null;
+    }
+
+    @Override
+    public boolean isValid() {
+        return true;
+    }
+
+    @Override
+    public boolean isProcessing() {
+        return false;
+    }
+
+    @Override
+    public boolean isOredict() {
+        return false;
+    }
+
+    @Override
+    public List<ItemStack> getInputs() {
+        return inputs;
+    }
+
+    @Override
+    public List<ItemStack> getOutputs(ItemStack[] took) {
+        return getOutputs();
+    }
+
+    @Override
+    public List<ItemStack> getOutputs() {
+        return Collections.singletonList(output);
+    }
+
+    @Override
+    public List<ItemStack> getByproducts(ItemStack[] took) {
+        return getByproducts();
+    }
+
+    @Override
+    public List<ItemStack> getByproducts() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public String getId() {
+        return CraftingTaskFactory.ID;
+    }
+
+    @Override
+    public int getQuantityPerRequest(ItemStack requested, int compare) {
+        return API.instance().getComparer().isEqual(requested, output, compare) ? output.stackSize : 0;
+    }
+}
@@ -0,0 +1,58 @@
+package com.raoulvdberge.refinedstorage.test;
+
+import com.raoulvdberge.refinedstorage.api.autocrafting.ICraftingPattern;
+import com.raoulvdberge.refinedstorage.api.autocrafting.ICraftingPatternContainer;
+import com.raoulvdberge.refinedstorage.api.autocrafting.ICraftingPatternProvider;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A pattern item that can be put in crafters, it creates a {@link TestPattern} with the item types of {@link TestItems}.
+ * The item isn't registered, so patterns can't be saved.
+ */
+public class TestPatternItem extends Item implements ICraftingPatternProvider {
+    public static final TestPatternItem INSTANCE = new TestPatternItem();
+
+    private static final String NBT_OUTPUT = "Output";
+    private static final String NBT_INPUTS = "Inputs";
+
+    /**
+     * @param output the type of the output
+     * @param inputs the types of the inputs, one of each
+     * @return the pattern
+     */
+    public static ItemStack create(int output, int... inputs) {
+        ItemStack stack = new ItemStack(INSTANCE);
+
+        NBTTagCompound tag = new NBTTagCompound();
+
+        tag.setInteger(NBT_OUTPUT, output);
+        tag.setIntArray(NBT_INPUTS, inputs);
+
+        stack.setTagCompound(tag);
+
+        return stack;
+    }
+
+    public static ItemStack getOutput(ItemStack pattern) {
+        return TestItems.create(pattern.getTagCompound().getInteger(NBT_OUTPUT), 1);
+    }
+
+    @Nonnull
+    @Override
+    public ICraftingPattern create(World world, ItemStack stack, ICraftingPatternContainer container) {
+        List<ItemStack> inputs = new ArrayList<>();
+
+        for (int input : stack.getTagCompound().getIntArray(NBT_INPUTS)) {
+            inputs.add(TestItems.create(input, 1));
+        }
+
+        return new TestPattern(container, inputs, getOutput(stack));
+    }
+}
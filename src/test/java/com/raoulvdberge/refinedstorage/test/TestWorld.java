@@ -0,0 +1,181 @@
+package com.raoulvdberge.refinedstorage.test;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.profiler.Profiler;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.dedicated.DedicatedPlayerList;
+import net.minecraft.server.dedicated.DedicatedServer;
+import net.minecraft.server.management.PlayerList;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.ITickable;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldProviderSurface;
+import net.minecraft.world.chunk.IChunkProvider;
+import net.minecraft.world.storage.ISaveHandler;
+import net.minecraft.world.storage.MapStorage;
+import net.minecraft.world.storage.WorldInfo;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A server world without chunks, the blocks and tiles are kept in maps and only the tiles that are placed with
+ * {@link #place(BlockPos, IBlockState, TileEntity)} exist. Nothing is powered by redstone, and the server has no players.
+ * Block updates that would be sent to players are counted instead.
+ */
+public class TestWorld extends World {
+    private static MinecraftServer server;
+
+    private Map<BlockPos, IBlockState> states = new HashMap<>();
+    private Map<BlockPos, TileEntity> tiles = new LinkedHashMap<>();
+    private List<ITickable> tickables = new ArrayList<>();
+
+    private long blockUpdates;
+
+    public TestWorld() {
+        super((ISaveHandler) null, new WorldInfo(new NBTTagCompound()), new WorldProviderSurface(), new Profiler(), false);
+
+        this.mapStorage = new MapStorage((ISaveHandler) null);
+    }
+
+    /**
+     * Places a block, the tile is updated every tick if it's tickable, in the order the tiles were placed in.
+     *
+     * @param pos   the position
+     * @param state the block state
+     * @param tile  the tile, or null if the block has none
+     */
+    public void place(BlockPos pos, IBlockState state, @Nullable TileEntity tile) {
+        states.put(pos, state);
+
+        if (tile != null) {
+            tile.setWorldObj(this);
+            tile.setPos(pos);
+
+            tiles.put(pos, tile);
+
+            if (tile instanceof ITickable) {
+                tickables.add((ITickable) tile);
+            }
+
+            tile.onLoad();
+        }
+    }
+
+    /**
+     * Advances the world time and updates every tickable tile.
+     */
+    public void tick() {
+        worldInfo.setWorldTotalTime(worldInfo.getWorldTotalTime() + 1);
+
+        for (ITickable tickable : tickables) {
+            tickable.update();
+        }
+    }
+
+    /**
+     * @return the amount of block updates that were sent to players since the world was created, one packet for every player that sees the block
+     */
+    public long getBlockUpdates() {
+        return blockUpdates;
+    }
+
+    @Override
+    public IBlockState getBlockState(BlockPos pos) {
+        IBlockState state = states.get(pos);
+
+        return state != null ? state : Blocks.AIR.getDefaultState();
+    }
+
+    @Override
+    public boolean setBlockState(BlockPos pos, IBlockState state, int flags) {
+        states.put(pos, state);
+
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public TileEntity getTileEntity(BlockPos pos) {
+        return tiles.get(pos);
+    }
+
+    @Override
+    public boolean isBlockLoaded(BlockPos pos, boolean allowEmpty) {
+        return true;
+    }
+
+    @Override
+    public boolean isBlockPowered(BlockPos pos) {
+        return false;
+    }
+
+    @Override
+    public void notifyBlockUpdate(BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+        blockUpdates++;
+    }
+
+    @Override
+    public void markChunkDirty(BlockPos pos, TileEntity tile) {
+        // NO OP
+    }
+
+    @Override
+    public void updateComparatorOutputLevel(BlockPos pos, Block block) {
+        // NO OP
+    }
+
+    @Override
+    public MinecraftServer getMinecraftServer() {
+        return getServer();
+    }
+
+    @Override
+    protected IChunkProvider createChunkProvider() {
+        return null;
+    }
+
+    @Override
+    protected boolean isChunkLoaded(int x, int z, boolean allowEmpty) {
+        return true;
+    }
+
+    private static synchronized MinecraftServer getServer() {
+        if (server == null) {
+            try {
+                // The server and its player list only have to answer that no players are online
+                PlayerList players = TestBootstrap.allocate(DedicatedPlayerList.class);
+
+                for (Field field : PlayerList.class.getDeclaredFields()) {
+                    if (field.getType() == List.class && !Modifier.isStatic(field.getModifiers())) {
+                        field.setAccessible(true);
+                        field.set(players, new ArrayList<>());
+                    }
+                }
+
+                server = TestBootstrap.allocate(DedicatedServer.class);
+
+                for (Field field : MinecraftServer.class.getDeclaredFields()) {
+                    if (field.getType() == PlayerList.class) {
+                        field.setAccessible(true);
+                        field.set(server, players);
+                    }
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not create the server", e);
+            }
+        }
+
+        return server;
+    }
+}